@@ -0,0 +1,173 @@
+package database;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic synthetic data sets for the benchmarks. For N users: one admin, N/100
+ * instructors and the rest students; N/50 courses (at least 10) of 5 lessons with 3-question
+ * quizzes, one in ten still pending; every student enrolled in 3 courses with scores for some of
+ * the first course's lessons, and a certificate where all five are passed.
+ * <p>
+ * Ids and picks are pure functions of the record's index, so benchmarks can name any student,
+ * course or lesson without loading anything, and the JSON is streamed out without building the
+ * model. Each size is generated once under {@code -Dskillforge.bench.dataRoot} (default
+ * {@code target/jmh-data}) and copied for every trial, since benchmarks change the files.
+ */
+final class BenchmarkData {
+    static final String PASSWORD = "password";
+    static final int LESSONS_PER_COURSE = 5, ENROLLMENTS_PER_STUDENT = 3;
+
+    final int users, instructors, students, courses;
+
+    BenchmarkData(int users) {
+        this.users = users;
+        this.instructors = Math.max(1, users / 100);
+        this.students = users - 1 - instructors;
+        this.courses = Math.max(10, users / 50);
+        if (students < 1) throw new IllegalArgumentException("need at least 3 users, got " + users);
+    }
+
+    // --- Ids and picks ---
+    static String studentId(int s) { return id(1, s); }
+    static String instructorId(int i) { return id(2, i); }
+    static String courseId(int c) { return id(3, c); }
+    static String lessonId(int c, int l) { return id(4, c * LESSONS_PER_COURSE + l); }
+    static String studentEmail(int s) { return "student" + s + "@bench.test"; }
+
+    boolean approved(int c) { return c % 10 != 9; }
+
+    /** The student's k-th course; the three are distinct. */
+    int enrolledCourse(int s, int k) {
+        int step = 1 + (int) (mix(s, 7) % Math.max(1, (courses - 1) / 2));
+        return (int) ((mix(s, 5) % courses + (long) k * step) % courses);
+    }
+
+    /** The student's score for lesson l of their first course, or -1 for none. */
+    int score(int s, int l) { return l <= mix(s, 11) % LESSONS_PER_COURSE ? 40 + (int) (mix(s, 13 + l) % 61) : -1; }
+
+    private static String id(int kind, int i) { return new UUID(mix(kind, i), mix(i, kind)).toString(); }
+
+    private static long mix(long a, long b) {
+        long x = a * 0x9E3779B97F4A7C15L + b;
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return (x ^ (x >>> 31)) & Long.MAX_VALUE;
+    }
+
+    // --- Files ---
+
+    /** A private copy of this size's data set, generating it first if needed. */
+    Path freshCopy() throws IOException {
+        Path source = generated();
+        Path dir = Files.createTempDirectory(source.getParent(), "trial-");
+        try (Stream<Path> files = Files.list(source)) {
+            for (Path f : (Iterable<Path>) files::iterator) Files.copy(f, dir.resolve(f.getFileName()));
+        }
+        return dir;
+    }
+
+    private synchronized Path generated() throws IOException {
+        Path root = Paths.get(System.getProperty("skillforge.bench.dataRoot", "target/jmh-data")).toAbsolutePath();
+        Path dir = root.resolve("users-" + users);
+        if (Files.isDirectory(dir)) return dir;
+        Path tmp = Files.createDirectories(root.resolve("users-" + users + ".tmp"));
+        writeUsers(tmp.resolve("users.json"));
+        writeCourses(tmp.resolve("courses.json"));
+        Files.move(tmp, dir, StandardCopyOption.ATOMIC_MOVE);
+        return dir;
+    }
+
+    static void deleteTree(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeUsers(Path file) throws IOException {
+        String hash = PasswordHasher.hashPassword(PASSWORD);
+        try (JsonWriter w = new JsonWriter(new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16))) {
+            w.beginArray();
+            user(w, "admin", "Admin", "admin@skillforge.com", hash, "Admin").endObject();
+            for (int i = 0; i < instructors; i++) {
+                user(w, instructorId(i), "instructor" + i, "instructor" + i + "@bench.test", hash, "Instructor");
+                w.name("createdCourses").beginArray();
+                for (int c = i; c < courses; c += instructors) w.value(courseId(c));
+                w.endArray().endObject();
+            }
+            for (int s = 0; s < students; s++) {
+                user(w, studentId(s), "student" + s, studentEmail(s), hash, "Student");
+                w.name("enrolledCourses").beginArray();
+                for (int k = 0; k < ENROLLMENTS_PER_STUDENT; k++) w.value(courseId(enrolledCourse(s, k)));
+                w.endArray();
+                int first = enrolledCourse(s, 0), passed = 0;
+                w.name("quizScores").beginObject();
+                for (int l = 0; l < LESSONS_PER_COURSE; l++) {
+                    int score = score(s, l);
+                    if (score < 0) continue;
+                    w.name(lessonId(first, l)).value(score);
+                    if (score >= 50) passed++;
+                }
+                w.endObject();
+                w.name("certificates").beginArray();
+                if (passed == LESSONS_PER_COURSE && approved(first)) {
+                    w.beginObject().name("certificateId").value(id(5, s)).name("studentId").value(studentId(s)).name("studentName").value("student" + s)
+                            .name("courseId").value(courseId(first)).name("courseTitle").value("Course " + first).name("issueDate").value("2026-01-01").endObject();
+                }
+                w.endArray().endObject();
+            }
+            w.endArray();
+        }
+    }
+
+    private static JsonWriter user(JsonWriter w, String id, String name, String email, String hash, String role) throws IOException {
+        return w.beginObject().name("userId").value(id).name("username").value(name).name("email").value(email).name("passwordHash").value(hash).name("role").value(role);
+    }
+
+    private void writeCourses(Path file) throws IOException {
+        // Invert the enrollments (course -> students) with a counting sort over int arrays
+        int[] start = new int[courses + 1];
+        for (int s = 0; s < students; s++) for (int k = 0; k < ENROLLMENTS_PER_STUDENT; k++) start[enrolledCourse(s, k) + 1]++;
+        for (int c = 0; c < courses; c++) start[c + 1] += start[c];
+        int[] members = new int[start[courses]], fill = start.clone();
+        for (int s = 0; s < students; s++) for (int k = 0; k < ENROLLMENTS_PER_STUDENT; k++) members[fill[enrolledCourse(s, k)]++] = s;
+
+        try (JsonWriter w = new JsonWriter(new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16))) {
+            w.beginArray();
+            for (int c = 0; c < courses; c++) {
+                w.beginObject().name("courseId").value(courseId(c)).name("title").value("Course " + c).name("description").value("Synthetic course " + c)
+                        .name("instructorId").value(instructorId(c % instructors));
+                w.name("lessons").beginArray();
+                for (int l = 0; l < LESSONS_PER_COURSE; l++) {
+                    String lessonId = lessonId(c, l);
+                    w.beginObject().name("lessonId").value(lessonId).name("title").value("Lesson " + l).name("resources").beginArray().endArray();
+                    w.name("quiz").beginObject().name("quizId").value(id(6, c * LESSONS_PER_COURSE + l)).name("lessonId").value(lessonId).name("questions").beginArray();
+                    for (int q = 0; q < 3; q++) {
+                        w.beginObject().name("questionText").value("Question " + q).name("options").beginArray().value("A").value("B").value("C").endArray()
+                                .name("correctOptionIndex").value(q).endObject();
+                    }
+                    w.endArray().endObject().endObject();
+                }
+                w.endArray();
+                w.name("students").beginArray();
+                for (int i = start[c]; i < start[c + 1]; i++) w.value(studentId(members[i]));
+                w.endArray();
+                w.name("status").value(approved(c) ? "APPROVED" : "PENDING").endObject();
+            }
+            w.endArray();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package database;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code target/benchmarks.jar} (built by {@code mvn -Pjmh package}). Takes the
+ * usual JMH options and always adds the GC profiler, so every result carries its allocation
+ * rate ({@code gc.alloc.rate.norm}, bytes per operation) next to its time, and the
+ * {@link RetainedHeapProfiler} that reports {@link FootprintBenchmark}'s heap figures. For example:
+ * <pre>
+ *   java -jar target/benchmarks.jar                                  # everything, 1k/100k/1M users
+ *   java -jar target/benchmarks.jar Lookup -p users=100000
+ *   java -jar target/benchmarks.jar Save -p storage=journal,binary -rf json
+ *   java -jar target/benchmarks.jar -p users=1000000 -jvmArgsAppend -Xmx12g
+ * </pre>
+ * Data sets are generated on first use under {@code target/jmh-data} (override with
+ * {@code -jvmArgsAppend -Dskillforge.bench.dataRoot=...}); the 1M-user set is about 700 MB.
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams() || cli.shouldListProfilers() || cli.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(cli);
+        if (cli.getProfilers().stream().noneMatch(p -> p.getKlass().equals("gc") || p.getKlass().equals(GCProfiler.class.getName()))) options.addProfiler(GCProfiler.class);
+        if (cli.getProfilers().stream().noneMatch(p -> p.getKlass().equals(RetainedHeapProfiler.class.getName()))) options.addProfiler(RetainedHeapProfiler.class);
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,48 @@
+package database;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A {@link JsonDatabaseManager} opened on a private copy of a {@link BenchmarkData} set. Storage
+ * defaults to the journal, so operation benchmarks measure the operation rather than a full JSON
+ * rewrite; pass {@code -p storage=json} (or sharded, binary) to include that.
+ */
+@State(Scope.Benchmark)
+public class DatabaseState {
+    @Param({"1000", "100000", "1000000"})
+    public int users;
+
+    @Param({"journal"})
+    public String storage;
+
+    BenchmarkData data;
+    JsonDatabaseManager db;
+    private Path dir;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        data = new BenchmarkData(users);
+        dir = data.freshCopy();
+        db = open(dir, storage);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        db.close();
+        BenchmarkData.deleteTree(dir);
+    }
+
+    static JsonDatabaseManager open(Path dir, String storage) {
+        System.setProperty("skillforge.dataDir", dir.toString());
+        System.setProperty("skillforge.storage", storage);
+        return new JsonDatabaseManager();
+    }
+}
@@ -0,0 +1,83 @@
+package database;
+
+import models.IdDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap kept alive by a loaded database: each invocation opens a fresh copy, waits for the
+ * background search indexing, then forces full collections and reports the growth as
+ * {@code retainedMB}, with the number of shared ids in {@link IdDictionary} as {@code distinctIds}
+ * (through {@link RetainedHeapProfiler}). The time score is the cold load. For example:
+ * <pre>
+ *   java -jar target/benchmarks.jar Footprint -p users=500000 -jvmArgsAppend "-Xmx5g -XX:+UseParallelGC"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class FootprintBenchmark {
+    @Param({"100000", "500000"})
+    public int users;
+
+    @Param({"json"})
+    public String storage;
+
+    private BenchmarkData data;
+    private Path dir;
+    private JsonDatabaseManager opened;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        data = new BenchmarkData(users);
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() throws IOException {
+        dir = data.freshCopy();
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeOpened() {
+        opened.close();
+        opened = null;
+        BenchmarkData.deleteTree(dir);
+    }
+
+    @Benchmark
+    public void load() throws InterruptedException {
+        long before = usedAfterGc();
+        opened = DatabaseState.open(dir, storage);
+        // Lesson content is indexed on a daemon thread after the constructor returns; count it too
+        for (Thread t : Thread.getAllStackTraces().keySet()) if (t.getName().equals("search-indexer")) t.join();
+        RetainedHeapProfiler.record((usedAfterGc() - before) / 1e6, IdDictionary.size());
+    }
+
+    private static long usedAfterGc() {
+        Runtime rt = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, rt.totalMemory() - rt.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,40 @@
+package database;
+
+import models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Read paths, each against a random student or course. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LookupBenchmark {
+    @Benchmark
+    public User getUserByEmail(DatabaseState s) {
+        return s.db.getUserByEmail(BenchmarkData.studentEmail(ThreadLocalRandom.current().nextInt(s.data.students)));
+    }
+
+    @Benchmark
+    public User loginUser(DatabaseState s) {
+        return s.db.loginUser(BenchmarkData.studentEmail(ThreadLocalRandom.current().nextInt(s.data.students)), BenchmarkData.PASSWORD);
+    }
+
+    @Benchmark
+    public Map<String, Double> getCourseStatistics(DatabaseState s) {
+        return s.db.getCourseStatistics(BenchmarkData.courseId(ThreadLocalRandom.current().nextInt(s.data.courses)));
+    }
+}
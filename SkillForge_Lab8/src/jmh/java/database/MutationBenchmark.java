@@ -0,0 +1,87 @@
+package database;
+
+import models.Course;
+import models.Question;
+import models.Quiz;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Write paths, each including its commit to the configured storage. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MutationBenchmark {
+    /** A random student and an approved course they are not enrolled in. */
+    @State(Scope.Thread)
+    public static class Enrollment {
+        String studentId, courseId;
+
+        @Setup(Level.Invocation)
+        public void pick(DatabaseState s) {
+            ThreadLocalRandom r = ThreadLocalRandom.current();
+            int c;
+            do c = r.nextInt(s.data.courses); while (!s.data.approved(c));
+            studentId = BenchmarkData.studentId(r.nextInt(s.data.students));
+            courseId = BenchmarkData.courseId(c);
+            if (s.db.isEnrolled(studentId, courseId)) s.db.unenrollStudentFromCourse(studentId, courseId);
+        }
+    }
+
+    /** A course shaped like the generated ones (5 quizzed lessons, the average enrollment, some scores), rebuilt before each delete. */
+    @State(Scope.Thread)
+    public static class Victim {
+        String courseId;
+
+        @Setup(Level.Invocation)
+        public void build(DatabaseState s) {
+            JsonDatabaseManager db = s.db;
+            String owner = BenchmarkData.instructorId(0), title = "Victim " + UUID.randomUUID();
+            db.createCourse(title, "Deleted by the benchmark", owner);
+            courseId = db.getCoursesByInstructor(owner).stream().filter(c -> c.getTitle().equals(title)).findFirst().orElseThrow().getCourseId();
+            db.approveCourse(courseId);
+            for (int l = 0; l < BenchmarkData.LESSONS_PER_COURSE; l++) {
+                Quiz quiz = new Quiz(UUID.randomUUID().toString(), "", List.of(new Question("Q", List.of("A", "B", "C"), 0)));
+                db.addLesson(courseId, "Lesson " + l, "Content " + l, quiz);
+            }
+            Course course = db.getCourseById(courseId);
+            String firstLesson = course.getLessons().get(0).getLessonId();
+            ThreadLocalRandom r = ThreadLocalRandom.current();
+            int enrolled = s.data.students * BenchmarkData.ENROLLMENTS_PER_STUDENT / s.data.courses;
+            for (int i = 0; i < enrolled; i++) {
+                String student = BenchmarkData.studentId(r.nextInt(s.data.students));
+                db.enrollStudentInCourse(student, courseId);
+                db.submitQuiz(student, courseId, firstLesson, r.nextInt(101));
+            }
+        }
+    }
+
+    @Benchmark
+    public void enrollStudentInCourse(DatabaseState s, Enrollment e) { s.db.enrollStudentInCourse(e.studentId, e.courseId); }
+
+    @Benchmark
+    public void submitQuiz(DatabaseState s) {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        int student = r.nextInt(s.data.students), course = s.data.enrolledCourse(student, r.nextInt(BenchmarkData.ENROLLMENTS_PER_STUDENT));
+        s.db.submitQuiz(BenchmarkData.studentId(student), BenchmarkData.courseId(course), BenchmarkData.lessonId(course, r.nextInt(BenchmarkData.LESSONS_PER_COURSE)), r.nextInt(101));
+    }
+
+    @Benchmark
+    public void deleteCourse(DatabaseState s, Victim v) { s.db.deleteCourse(v.courseId); }
+}
@@ -0,0 +1,45 @@
+package database;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reports what {@link FootprintBenchmark} measured in an iteration as {@code retainedMB} and
+ * {@code distinctIds}, averaged over iterations and forks (JMH's own aux counters are summed).
+ * {@link BenchmarkMain} always adds it; other benchmarks record nothing, so it stays silent.
+ */
+public final class RetainedHeapProfiler implements InternalProfiler {
+    private static volatile double retainedMB = Double.NaN;
+    private static volatile long distinctIds;
+
+    static void record(double megabytes, long ids) {
+        distinctIds = ids;
+        retainedMB = megabytes;
+    }
+
+    @Override
+    public String getDescription() { return "Retained heap of a loaded database, from FootprintBenchmark"; }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        retainedMB = Double.NaN;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes") // JMH declares the raw Result type here
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams, IterationResult result) {
+        double mb = retainedMB;
+        if (Double.isNaN(mb)) return Collections.emptyList();
+        return List.of(new ScalarResult("retainedMB", mb, "MB", AggregationPolicy.AVG),
+                new ScalarResult("distinctIds", distinctIds, "ids", AggregationPolicy.AVG));
+    }
+}
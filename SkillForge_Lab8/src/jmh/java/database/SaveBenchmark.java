@@ -0,0 +1,68 @@
+package database;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of persisting one changed record, per storage backend: a course edit and a student's
+ * quiz score. JSON storage rewrites a whole file per change, so expect seconds at 1M users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int users;
+
+    @Param({"json", "journal", "sharded", "binary"})
+    public String storage;
+
+    private BenchmarkData data;
+    private JsonDatabaseManager db;
+    private Path dir;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        data = new BenchmarkData(users);
+        dir = data.freshCopy();
+        db = DatabaseState.open(dir, storage);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        db.close();
+        BenchmarkData.deleteTree(dir);
+    }
+
+    @Benchmark
+    public void saveCourse() {
+        int c = ThreadLocalRandom.current().nextInt(data.courses);
+        db.updateCourse(BenchmarkData.courseId(c), "Course " + c, "Edited " + System.nanoTime());
+    }
+
+    @Benchmark
+    public void saveStudent() {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        int s = r.nextInt(data.students), c = data.enrolledCourse(s, 0);
+        db.submitQuiz(BenchmarkData.studentId(s), BenchmarkData.courseId(c), BenchmarkData.lessonId(c, 0), r.nextInt(101));
+    }
+}
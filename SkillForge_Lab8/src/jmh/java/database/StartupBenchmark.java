@@ -0,0 +1,75 @@
+package database;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import models.Course;
+import models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start: reading users.json and courses.json into the model alone ({@link #readJson}), and
+ * opening a whole {@link JsonDatabaseManager} with every index rebuilt ({@link #open}) for each
+ * storage backend. The first open of sharded or binary storage imports the JSON; warmup absorbs it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int users;
+
+    @State(Scope.Benchmark)
+    public static class Backend {
+        @Param({"json", "journal", "sharded", "binary"})
+        public String storage;
+    }
+
+    private Path dir;
+    private JsonDatabaseManager opened;
+    private final Gson gson = ModelTypeAdapters.register(new GsonBuilder()).create();
+
+    @Setup(Level.Trial)
+    public void copy() throws IOException { dir = new BenchmarkData(users).freshCopy(); }
+
+    @TearDown(Level.Trial)
+    public void delete() { BenchmarkData.deleteTree(dir); }
+
+    @Benchmark
+    public List<User> readJson() {
+        List<User> users = new ArrayList<>();
+        List<Course> courses = new ArrayList<>();
+        new JsonFileStorage(gson, dir.resolve("users.json"), dir.resolve("courses.json")).load(users, courses);
+        return users;
+    }
+
+    /** Closes the manager {@link #open} made, so its threads and background indexing don't run into the next shot. */
+    @TearDown(Level.Invocation)
+    public void closeOpened() {
+        if (opened != null) opened.close();
+        opened = null;
+    }
+
+    @Benchmark
+    public JsonDatabaseManager open(Backend backend) { return opened = DatabaseState.open(dir, backend.storage); }
+}
@@ -0,0 +1,88 @@
+package database;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import models.Admin;
+import models.Instructor;
+import models.Student;
+import models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading users.json, the largest file at startup: the streaming adapters that decode each record
+ * once ({@link #streaming}) against the loader they replaced ({@link #twoPass}), which parsed the
+ * file into maps and then wrote each map back to JSON to read it again as its role's class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UserLoadBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int users;
+
+    private static final Type USER_MAPS = new TypeToken<List<Map<String, Object>>>() {}.getType();
+
+    private Path file;
+    private Path dir;
+    private final Gson reflective = new GsonBuilder().setPrettyPrinting().create();
+
+    @Setup(Level.Trial)
+    public void copy() throws IOException {
+        dir = new BenchmarkData(users).freshCopy();
+        file = dir.resolve("users.json");
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() { BenchmarkData.deleteTree(dir); }
+
+    @Benchmark
+    public List<User> streaming() throws IOException {
+        List<User> out = new ArrayList<>();
+        try (JsonReader in = new JsonReader(Files.newBufferedReader(file))) {
+            ModelTypeAdapters.readArray(in, ModelTypeAdapters.USER, out);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<User> twoPass() throws IOException {
+        List<User> out = new ArrayList<>();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            List<Map<String, Object>> userMaps = reflective.fromJson(reader, USER_MAPS);
+            for (Map<String, Object> userMap : userMaps) {
+                String role = (String) userMap.get("role");
+                if ("Student".equals(role)) out.add(reflective.fromJson(reflective.toJson(userMap), Student.class));
+                else if ("Instructor".equals(role)) out.add(reflective.fromJson(reflective.toJson(userMap), Instructor.class));
+                else if ("Admin".equals(role)) out.add(reflective.fromJson(reflective.toJson(userMap), Admin.class));
+            }
+        }
+        return out;
+    }
+}
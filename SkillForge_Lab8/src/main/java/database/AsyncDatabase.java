@@ -0,0 +1,99 @@
+package database;
+
+import models.Course;
+import models.CourseStatus;
+import models.Quiz;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Asynchronous facade over {@link JsonDatabaseManager} for the desktop UI. Every call returns
+ * at once with a {@link CompletableFuture} and runs on one dedicated I/O thread, so the Event
+ * Dispatch Thread never waits on a commit, however large the data files are. Tasks run in
+ * submission order: a refresh queued after a change always sees that change.
+ * <p>
+ * Course searches are the exception: they run on a search thread of their own (see
+ * {@link #searchCourses}).
+ * <p>
+ * Futures complete on the I/O thread; UI code should hop back with
+ * {@code SwingUtilities.invokeLater} (the dashboards' {@code BusyIndicator} does this).
+ */
+public final class AsyncDatabase {
+    private static AsyncDatabase instance;
+
+    private final JsonDatabaseManager db;
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "skillforge-io");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ExecutorService searches = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "skillforge-search");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private AsyncDatabase(JsonDatabaseManager db) {
+        this.db = db;
+        // Let queued changes reach storage before it closes; the manager's shutdown hook runs this first
+        db.beforeClose(this::drain);
+    }
+
+    public static synchronized AsyncDatabase getInstance() {
+        if (instance == null) instance = new AsyncDatabase(JsonDatabaseManager.getInstance());
+        return instance;
+    }
+
+    /** Runs any read (or group of reads) on the I/O thread, after all earlier tasks. */
+    public <T> CompletableFuture<T> read(Function<JsonDatabaseManager, T> query) { return CompletableFuture.supplyAsync(() -> query.apply(db), io); }
+
+    /** Runs any change on the I/O thread, after all earlier tasks. */
+    public CompletableFuture<Void> write(Consumer<JsonDatabaseManager> change) { return CompletableFuture.runAsync(() -> change.accept(db), io); }
+
+    // --- Student ---
+    public CompletableFuture<Void> enrollStudentInCourse(String studentId, String courseId) { return write(d -> d.enrollStudentInCourse(studentId, courseId)); }
+    public CompletableFuture<Void> unenrollStudentFromCourse(String studentId, String courseId) { return write(d -> d.unenrollStudentFromCourse(studentId, courseId)); }
+    public CompletableFuture<Integer> submitQuizAnswers(String sId, String cId, String lId, int[] answers) { return CompletableFuture.supplyAsync(() -> db.submitQuizAnswers(sId, cId, lId, answers), io); }
+    public CompletableFuture<Void> unmarkLessonAsCompleted(String sId, String lId) { return write(d -> d.unmarkLessonAsCompleted(sId, lId)); }
+    public CompletableFuture<String> getLessonContent(String lessonId) { return read(d -> d.getLessonContent(lessonId)); }
+    /**
+     * {@link JsonDatabaseManager#searchCourses} on the search thread, so search-as-you-type never
+     * waits behind queued commits. The search index is safe to read while writers update it; a
+     * change still waiting in the I/O queue may not be found yet. {@code filter} runs on the search
+     * thread, before the limit.
+     */
+    public CompletableFuture<List<Course>> searchCourses(String text, CourseStatus status, Predicate<Course> filter, int limit) {
+        return CompletableFuture.supplyAsync(() -> db.searchCourses(text, status, filter, limit), searches);
+    }
+
+    // --- Instructor ---
+    public CompletableFuture<Void> createCourse(String title, String description, String instructorId) { return write(d -> d.createCourse(title, description, instructorId)); }
+    public CompletableFuture<Void> updateCourse(String id, String title, String desc) { return write(d -> d.updateCourse(id, title, desc)); }
+    public CompletableFuture<Void> deleteCourse(String courseId) { return write(d -> d.deleteCourse(courseId)); }
+    public CompletableFuture<Void> addLesson(String courseId, String title, String content, Quiz quiz) { return write(d -> d.addLesson(courseId, title, content, quiz)); }
+    public CompletableFuture<Void> updateLesson(String cId, String lId, String title, String content, Quiz newQuiz) { return write(d -> d.updateLesson(cId, lId, title, content, newQuiz)); }
+    public CompletableFuture<Void> deleteLesson(String cId, String lId) { return write(d -> d.deleteLesson(cId, lId)); }
+
+    // --- Admin ---
+    public CompletableFuture<Void> approveCourse(String id) { return write(d -> d.approveCourse(id)); }
+    public CompletableFuture<Void> rejectCourse(String id) { return write(d -> d.rejectCourse(id)); }
+    public CompletableFuture<PlatformReport> getPlatformReport() { return read(JsonDatabaseManager::getPlatformReport); }
+
+    private void drain() {
+        searches.shutdownNow();
+        io.shutdown();
+        try {
+            io.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package database;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Replaces a group of data files so that readers only ever see all of the old versions or all
+ * of the new ones. Each commit:
+ * <ol>
+ *   <li>writes every new file next to its target as {@code <name>.commit} and fsyncs it,</li>
+ *   <li>atomically publishes a manifest listing those files with their CRC32 (the commit point),</li>
+ *   <li>renames each file over its target, then deletes the manifest.</li>
+ * </ol>
+ * {@link #recover()} runs before anything is loaded: a manifest left by a crash is rolled
+ * forward, and {@code .commit} files without a manifest are discarded.
+ * <p>
+ * Callers hand payloads to {@link #submit(Map)} and return immediately; a single committer
+ * thread does the I/O, keeping only the newest payload per file when commits pile up. Payloads
+ * can also be produced on that thread ({@link #submit(Supplier)}), so a caller never pays for
+ * building a large file.
+ */
+final class AtomicCommitter {
+    private static final String SUFFIX = ".commit";
+
+    private final Path manifest;
+    private final Path dir;
+    private final Object ioLock = new Object();
+    private final Map<Path, byte[]> pending = new LinkedHashMap<>(); // guarded by this
+    private final Set<Supplier<Map<Path, byte[]>>> renders = new LinkedHashSet<>(); // guarded by this
+    private boolean draining; // guarded by this
+    private final ExecutorService committer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "atomic-committer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    AtomicCommitter(Path manifest) {
+        this.manifest = manifest.toAbsolutePath();
+        this.dir = this.manifest.getParent();
+        try { Files.createDirectories(dir); } catch (IOException e) { e.printStackTrace(); }
+        recover();
+    }
+
+    /** Queues new contents for the given files; they will be committed together. */
+    synchronized void submit(Map<Path, byte[]> files) {
+        if (files.isEmpty()) return;
+        pending.putAll(files);
+        if (!draining) { draining = true; committer.execute(this::drain); }
+    }
+
+    /**
+     * Queues a commit of whatever {@code render} returns when the committer thread gets to it.
+     * Submitting the same supplier again before then queues nothing more; it renders once.
+     */
+    synchronized void submit(Supplier<Map<Path, byte[]>> render) {
+        renders.add(render);
+        if (!draining) { draining = true; committer.execute(this::drain); }
+    }
+
+    /** Waits until everything submitted so far has been committed. */
+    synchronized void awaitIdle() {
+        boolean interrupted = false;
+        while (draining) {
+            try { wait(); } catch (InterruptedException e) { interrupted = true; }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    void close() {
+        awaitIdle();
+        committer.shutdown();
+    }
+
+    private void drain() {
+        while (true) {
+            Map<Path, byte[]> batch;
+            List<Supplier<Map<Path, byte[]>>> toRender;
+            synchronized (this) {
+                if (pending.isEmpty() && renders.isEmpty()) { draining = false; notifyAll(); return; }
+                batch = new LinkedHashMap<>(pending);
+                pending.clear();
+                toRender = new ArrayList<>(renders);
+                renders.clear();
+            }
+            try {
+                for (Supplier<Map<Path, byte[]>> r : toRender) batch.putAll(r.get());
+                if (!batch.isEmpty()) commitNow(batch);
+            } catch (IOException | RuntimeException e) { e.printStackTrace(); }
+        }
+    }
+
+    /** Runs the whole commit protocol on the calling thread. */
+    void commitNow(Map<Path, byte[]> files) throws IOException {
+        synchronized (ioLock) { doCommit(files); }
+    }
+
+    private void doCommit(Map<Path, byte[]> files) throws IOException {
+        JsonArray entries = new JsonArray();
+        for (Map.Entry<Path, byte[]> f : files.entrySet()) {
+            Path target = f.getKey().toAbsolutePath();
+            writeDurably(staged(target), f.getValue());
+            JsonObject e = new JsonObject();
+            e.addProperty("target", target.getFileName().toString());
+            e.addProperty("crc", crc(f.getValue()));
+            entries.add(e);
+        }
+        JsonObject m = new JsonObject();
+        m.add("files", entries);
+        Path tmp = dir.resolve(manifest.getFileName() + ".tmp");
+        writeDurably(tmp, m.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDir();
+        publish(m);
+    }
+
+    /** Finishes a commit interrupted after its commit point and clears abandoned staging files. */
+    void recover() {
+        synchronized (ioLock) { doRecover(); }
+    }
+
+    private void doRecover() {
+        if (Files.exists(manifest)) {
+            try {
+                JsonElement m = JsonParser.parseString(Files.readString(manifest, StandardCharsets.UTF_8));
+                publish(m.getAsJsonObject());
+            } catch (IOException | JsonParseException | IllegalStateException e) {
+                throw new IllegalStateException("Unreadable commit manifest " + manifest, e);
+            }
+        }
+        try (DirectoryStream<Path> stray = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path p : stray) Files.deleteIfExists(p);
+        } catch (IOException e) { e.printStackTrace(); }
+    }
+
+    private void publish(JsonObject m) throws IOException {
+        for (JsonElement el : m.getAsJsonArray("files")) {
+            Path target = dir.resolve(el.getAsJsonObject().get("target").getAsString());
+            Path staged = staged(target);
+            if (!Files.exists(staged)) continue; // already renamed before the crash
+            if (crc(Files.readAllBytes(staged)) != el.getAsJsonObject().get("crc").getAsLong()) {
+                throw new IOException("Staged file " + staged + " does not match the commit manifest");
+            }
+            Files.move(staged, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        syncDir();
+        Files.deleteIfExists(manifest);
+    }
+
+    private static Path staged(Path target) { return target.resolveSibling(target.getFileName() + SUFFIX); }
+
+    private static void writeDurably(Path file, byte[] data) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.wrap(data);
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+    }
+
+    private void syncDir() {
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) { ch.force(true); }
+        catch (IOException e) { /* directories can't be opened for fsync on every platform */ }
+    }
+
+    private static long crc(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return crc.getValue();
+    }
+}
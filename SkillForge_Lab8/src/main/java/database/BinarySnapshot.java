@@ -0,0 +1,222 @@
+package database;
+
+import models.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary image of the whole database.
+ * <pre>
+ *   magic "SKFG", int version
+ *   string table: varint count, then per string varint byteLength + UTF-8 bytes
+ *   varint userCount, users...; varint courseCount, courses...
+ * </pre>
+ * Every string field is stored as a varint reference into the string table (0 = null, n = entry
+ * n-1), so each UUID, email or repeated title is written once however often it is referenced.
+ * Lists and maps are a varint size followed by their elements. Files are read through a
+ * memory-mapped {@link FileChannel}, so cold start is bound by I/O rather than tokenizing.
+ */
+final class BinarySnapshot {
+    private static final int MAGIC = 0x534B4647; // "SKFG"
+    private static final int VERSION = 1;
+    private static final byte STUDENT = 0, INSTRUCTOR = 1, ADMIN = 2;
+
+    private BinarySnapshot() {}
+
+    // --- Write ---
+    static byte[] encode(List<User> users, List<Course> courses) {
+        Encoder body = new Encoder();
+        body.varint(users.size());
+        for (User u : users) writeUser(body, u);
+        body.varint(courses.size());
+        for (Course c : courses) writeCourse(body, c);
+
+        Encoder out = new Encoder();
+        out.int32(MAGIC);
+        out.int32(VERSION);
+        out.varint(body.strings.size());
+        for (String s : body.strings) {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            out.varint(b.length);
+            out.bytes.write(b, 0, b.length);
+        }
+        out.bytes.write(body.bytes.toByteArray(), 0, body.bytes.size());
+        return out.bytes.toByteArray();
+    }
+
+    private static void writeUser(Encoder e, User u) {
+        if (u instanceof Student) {
+            Student s = (Student) u;
+            e.bytes.write(STUDENT);
+            writeCommon(e, u);
+            e.strings(s.getEnrolledCourses());
+            // Copy before writing each count: other records' writers may be updating these concurrently
+            List<Map.Entry<String, Integer>> scores = new ArrayList<>(s.getQuizScores().entrySet());
+            e.varint(scores.size());
+            for (Map.Entry<String, Integer> sc : scores) { e.string(sc.getKey()); e.zigzag(sc.getValue()); }
+            List<Certificate> certs = new ArrayList<>(s.getCertificates());
+            e.varint(certs.size());
+            for (Certificate c : certs) {
+                e.string(c.getCertificateId()); e.string(c.getStudentId()); e.string(c.getStudentName());
+                e.string(c.getCourseId()); e.string(c.getCourseTitle()); e.string(c.getIssueDate());
+            }
+        } else if (u instanceof Instructor) {
+            e.bytes.write(INSTRUCTOR);
+            writeCommon(e, u);
+            e.strings(((Instructor) u).getCreatedCourses());
+        } else {
+            e.bytes.write(ADMIN);
+            writeCommon(e, u);
+        }
+    }
+
+    private static void writeCommon(Encoder e, User u) {
+        e.string(u.getUserId()); e.string(u.getUsername()); e.string(u.getEmail());
+        e.string(u.getPasswordHash()); e.string(u.getRole());
+    }
+
+    private static void writeCourse(Encoder e, Course c) {
+        e.string(c.getCourseId()); e.string(c.getTitle()); e.string(c.getDescription()); e.string(c.getInstructorId());
+        e.varint(c.getStatus() == null ? 0 : c.getStatus().ordinal() + 1);
+        e.strings(c.getStudents());
+        List<Lesson> lessons = new ArrayList<>(c.getLessons());
+        e.varint(lessons.size());
+        for (Lesson l : lessons) {
+            e.string(l.getLessonId()); e.string(l.getTitle()); e.string(l.getContent());
+            e.strings(l.getResources());
+            Quiz q = l.getQuiz();
+            if (q == null) { e.varint(0); continue; }
+            e.varint(1);
+            e.string(q.getQuizId()); e.string(q.getLessonId());
+            e.varint(q.getQuestions().size());
+            for (Question qu : q.getQuestions()) { e.string(qu.getQuestionText()); e.strings(qu.getOptions()); e.zigzag(qu.getCorrectOptionIndex()); }
+        }
+    }
+
+    // --- Read ---
+    static void read(Path file, List<User> users, List<Course> courses) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IOException(file + " is larger than a single mapping (2 GB)");
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            decode(buf, users, courses);
+        }
+    }
+
+    static void decode(ByteBuffer buf, List<User> users, List<Course> courses) throws IOException {
+        if (buf.remaining() < 8 || buf.getInt() != MAGIC) throw new IOException("Not a SkillForge binary snapshot");
+        int version = buf.getInt();
+        if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+        Decoder d = new Decoder(buf);
+        d.readStringTable();
+        int nu = d.varint();
+        for (int i = 0; i < nu; i++) users.add(readUser(d));
+        int nc = d.varint();
+        for (int i = 0; i < nc; i++) courses.add(readCourse(d));
+    }
+
+    private static User readUser(Decoder d) {
+        byte type = d.buf.get();
+        String id = d.string(), name = d.string(), email = d.string(), hash = d.string(), role = d.string();
+        if (type == INSTRUCTOR) return new Instructor(id, name, email, hash, role, d.strings());
+        if (type == ADMIN) return new Admin(id, name, email, hash, role);
+        List<String> enrolled = d.strings();
+        int ns = d.varint();
+        QuizScores scores = new QuizScores(ns);
+        for (int i = 0; i < ns; i++) scores.put(d.string(), d.zigzag());
+        int nc = d.varint();
+        List<Certificate> certs = new ArrayList<>(nc);
+        for (int i = 0; i < nc; i++) certs.add(new Certificate(d.string(), d.string(), d.string(), d.string(), d.string(), d.string()));
+        return new Student(id, name, email, hash, role, enrolled, scores, certs);
+    }
+
+    private static Course readCourse(Decoder d) {
+        String id = d.string(), title = d.string(), desc = d.string(), instructorId = d.string();
+        int status = d.varint();
+        List<String> students = d.strings();
+        int nl = d.varint();
+        List<Lesson> lessons = new ArrayList<>(nl);
+        for (int i = 0; i < nl; i++) {
+            String lessonId = d.string(), lTitle = d.string(), content = d.string();
+            List<String> resources = d.strings();
+            Quiz quiz = null;
+            if (d.varint() == 1) {
+                String quizId = d.string(), qLessonId = d.string();
+                int nq = d.varint();
+                List<Question> questions = new ArrayList<>(nq);
+                for (int k = 0; k < nq; k++) questions.add(new Question(d.string(), d.strings(), d.zigzag()));
+                quiz = new Quiz(quizId, qLessonId, questions);
+            }
+            lessons.add(new Lesson(lessonId, lTitle, content, resources, quiz));
+        }
+        return new Course(id, title, desc, instructorId, lessons, students, status == 0 ? null : CourseStatus.values()[status - 1]);
+    }
+
+    // --- Encoding primitives ---
+    private static final class Encoder {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+        final List<String> strings = new ArrayList<>();
+        final Map<String, Integer> refs = new HashMap<>();
+
+        void int32(int v) { bytes.write(v >>> 24); bytes.write(v >>> 16); bytes.write(v >>> 8); bytes.write(v); }
+        void varint(int v) {
+            while ((v & ~0x7F) != 0) { bytes.write((v & 0x7F) | 0x80); v >>>= 7; }
+            bytes.write(v);
+        }
+        void zigzag(int v) { varint((v << 1) ^ (v >> 31)); }
+        void string(String s) {
+            if (s == null) { varint(0); return; }
+            Integer ref = refs.get(s);
+            if (ref == null) { ref = strings.size(); strings.add(s); refs.put(s, ref); }
+            varint(ref + 1);
+        }
+        void strings(List<String> list) {
+            if (list == null) { varint(0); return; }
+            Object[] items = list.toArray(); // one consistent view of a list that may be changing
+            varint(items.length);
+            for (Object s : items) string((String) s);
+        }
+    }
+
+    private static final class Decoder {
+        final ByteBuffer buf;
+        String[] table;
+        byte[] scratch = new byte[256];
+
+        Decoder(ByteBuffer buf) { this.buf = buf; }
+
+        void readStringTable() {
+            table = new String[varint()];
+            for (int i = 0; i < table.length; i++) {
+                int len = varint();
+                if (scratch.length < len) scratch = new byte[Math.max(len, scratch.length * 2)];
+                buf.get(scratch, 0, len);
+                table[i] = new String(scratch, 0, len, StandardCharsets.UTF_8);
+            }
+        }
+        int varint() {
+            int v = 0, shift = 0;
+            byte b;
+            do { b = buf.get(); v |= (b & 0x7F) << shift; shift += 7; } while (b < 0);
+            return v;
+        }
+        int zigzag() { int v = varint(); return (v >>> 1) ^ -(v & 1); }
+        String string() { int ref = varint(); return ref == 0 ? null : table[ref - 1]; }
+        List<String> strings() {
+            int n = varint();
+            List<String> list = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) list.add(string());
+            return list;
+        }
+    }
+}
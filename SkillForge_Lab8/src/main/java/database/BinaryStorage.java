@@ -0,0 +1,62 @@
+package database;
+
+import com.google.gson.Gson;
+import models.Course;
+import models.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps the database in a single {@link BinarySnapshot} file. When no snapshot exists yet the
+ * JSON files are imported once and the snapshot is written straight away.
+ */
+class BinaryStorage implements Storage {
+    private final Gson gson;
+    private final Path snapshotFile;
+    private final Path usersJson;
+    private final Path coursesJson;
+    private final AtomicCommitter committer;
+    private List<User> users;
+    private List<Course> courses;
+
+    BinaryStorage(Gson gson, Path snapshotFile, Path usersJson, Path coursesJson) {
+        this.gson = gson;
+        this.snapshotFile = snapshotFile;
+        this.usersJson = usersJson;
+        this.coursesJson = coursesJson;
+        this.committer = new AtomicCommitter(snapshotFile.resolveSibling("commit.manifest"));
+    }
+
+    @Override
+    public void load(List<User> users, List<Course> courses) {
+        this.users = users;
+        this.courses = courses;
+        if (Files.exists(snapshotFile)) {
+            try { BinarySnapshot.read(snapshotFile, users, courses); return; }
+            catch (IOException e) { throw new IllegalStateException("Cannot read snapshot " + snapshotFile, e); }
+        }
+        System.out.println(snapshotFile.getFileName() + " not found, importing JSON data.");
+        new JsonFileStorage(gson, usersJson, coursesJson).load(users, courses);
+        committer.submit(Collections.singletonMap(snapshotFile, BinarySnapshot.encode(users, courses)));
+    }
+
+    /** Encodes the whole model, so the manager only calls this from a flusher holding the exclusive lock. */
+    @Override
+    public synchronized void commit(ChangeSet changes) {
+        if (changes.isEmpty()) return;
+        committer.submit(Collections.singletonMap(snapshotFile, BinarySnapshot.encode(users, courses)));
+    }
+
+    @Override
+    public boolean snapshotsWholeModel() { return true; }
+
+    @Override
+    public void flush() { committer.awaitIdle(); }
+
+    @Override
+    public void close() { committer.close(); }
+}
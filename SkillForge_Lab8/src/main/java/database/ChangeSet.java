@@ -0,0 +1,34 @@
+package database;
+
+import models.Course;
+import models.User;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/** The users and courses touched by one {@link JsonDatabaseManager} operation. */
+final class ChangeSet {
+    final Set<User> users = new LinkedHashSet<>();
+    final Set<Course> courses = new LinkedHashSet<>();
+    final Set<String> deletedCourses = new LinkedHashSet<>();
+
+    ChangeSet user(User u) { if (u != null) users.add(u); return this; }
+    ChangeSet course(Course c) { if (c != null) courses.add(c); return this; }
+    ChangeSet deleteCourse(String courseId) {
+        deletedCourses.add(courseId);
+        courses.removeIf(c -> c.getCourseId().equals(courseId));
+        return this;
+    }
+
+    /** Folds a later change set into this one; a later delete wins over an earlier update. */
+    ChangeSet merge(ChangeSet later) {
+        users.addAll(later.users);
+        courses.addAll(later.courses);
+        for (String id : later.deletedCourses) deleteCourse(id);
+        return this;
+    }
+
+    boolean touchesUsers() { return !users.isEmpty(); }
+    boolean touchesCourses() { return !courses.isEmpty() || !deletedCourses.isEmpty(); }
+    boolean isEmpty() { return !touchesUsers() && !touchesCourses(); }
+}
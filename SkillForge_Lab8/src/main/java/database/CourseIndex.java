@@ -0,0 +1,80 @@
+package database;
+
+import models.Course;
+import models.CourseStatus;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Secondary indexes over courses by status, by instructor and by (instructor, status).
+ * Each course is numbered when it is added (load order, then creation order) and buckets are
+ * sorted by that number, so results come back in courses.json order even after a status change
+ * moves a course into another bucket.
+ */
+class CourseIndex {
+    private final Map<String, Long> position = new HashMap<>();
+    private long nextPosition;
+    private final Map<CourseStatus, Map<Long, Course>> byStatus = new EnumMap<>(CourseStatus.class);
+    private final Map<String, Map<Long, Course>> byInstructor = new HashMap<>();
+    private final Map<String, Map<CourseStatus, Map<Long, Course>>> byInstructorStatus = new HashMap<>();
+
+    void clear() { position.clear(); nextPosition = 0; byStatus.clear(); byInstructor.clear(); byInstructorStatus.clear(); }
+
+    void add(Course c) {
+        long at = nextPosition++;
+        position.put(c.getCourseId(), at);
+        if (c.getInstructorId() != null) byInstructor.computeIfAbsent(c.getInstructorId(), k -> new TreeMap<>()).put(at, c);
+        addStatus(c, c.getStatus());
+    }
+
+    void remove(Course c) {
+        removeStatus(c, c.getStatus());
+        Long at = position.remove(c.getCourseId());
+        Map<Long, Course> bucket = c.getInstructorId() == null ? null : byInstructor.get(c.getInstructorId());
+        if (bucket != null && at != null) { bucket.remove(at); if (bucket.isEmpty()) byInstructor.remove(c.getInstructorId()); }
+    }
+
+    /** Moves the course between status buckets; call after {@code c.setStatus(...)}. */
+    void statusChanged(Course c, CourseStatus oldStatus) {
+        if (oldStatus == c.getStatus()) return;
+        removeStatus(c, oldStatus);
+        addStatus(c, c.getStatus());
+    }
+
+    Collection<Course> withStatus(CourseStatus status) { return view(byStatus.get(status)); }
+    Collection<Course> byInstructor(String instructorId) { return view(byInstructor.get(instructorId)); }
+    Collection<Course> byInstructorAndStatus(String instructorId, CourseStatus status) {
+        Map<CourseStatus, Map<Long, Course>> m = byInstructorStatus.get(instructorId);
+        return m == null ? Collections.emptyList() : view(m.get(status));
+    }
+
+    private void addStatus(Course c, CourseStatus status) {
+        Long at = position.get(c.getCourseId());
+        if (status == null || at == null) return;
+        byStatus.computeIfAbsent(status, k -> new TreeMap<>()).put(at, c);
+        if (c.getInstructorId() != null) byInstructorStatus.computeIfAbsent(c.getInstructorId(), k -> new EnumMap<>(CourseStatus.class))
+                .computeIfAbsent(status, k -> new TreeMap<>()).put(at, c);
+    }
+
+    private void removeStatus(Course c, CourseStatus status) {
+        Long at = position.get(c.getCourseId());
+        if (status == null || at == null) return;
+        Map<Long, Course> bucket = byStatus.get(status);
+        if (bucket != null) bucket.remove(at);
+        Map<CourseStatus, Map<Long, Course>> m = c.getInstructorId() == null ? null : byInstructorStatus.get(c.getInstructorId());
+        if (m != null) {
+            Map<Long, Course> b = m.get(status);
+            if (b != null) { b.remove(at); if (b.isEmpty()) m.remove(status); }
+            if (m.isEmpty()) byInstructorStatus.remove(c.getInstructorId());
+        }
+    }
+
+    private static Collection<Course> view(Map<Long, Course> bucket) {
+        return bucket == null ? Collections.emptyList() : Collections.unmodifiableCollection(bucket.values());
+    }
+}
@@ -0,0 +1,153 @@
+package database;
+
+import models.Certificate;
+import models.Course;
+import models.Lesson;
+import models.Student;
+import models.User;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Per-(student, course) progress towards a certificate: which required lessons (those with a
+ * quiz) the student has passed, kept as a bitset over per-course lesson slots with a running
+ * count, plus whether the certificate has been issued. Score changes and lesson/quiz edits update
+ * it incrementally, so deciding completion is O(1) instead of a scan over certificates and lessons.
+ * <p>
+ * State for one course lives in a {@link Track} guarded by its own monitor: quiz submissions hold
+ * only the student's lock and lesson edits only the course's, so they meet here.
+ */
+class CourseProgress {
+    static final int PASS_SCORE = CourseStats.PASS_SCORE;
+
+    /** One student's progress in one course. */
+    private static final class Progress {
+        final BitSet passed = new BitSet();
+        int passedCount;
+        boolean certified;
+    }
+
+    /** Required-lesson slots and student progress for one course. */
+    private static final class Track {
+        final Map<String, Integer> slotOfLesson = new HashMap<>(); // required lessons only
+        final BitSet usedSlots = new BitSet();
+        final Map<String, Progress> byStudent = new HashMap<>();
+
+        Progress progress(String studentId) { return byStudent.computeIfAbsent(studentId, k -> new Progress()); }
+    }
+
+    private final Map<String, Track> byCourse = new ConcurrentHashMap<>();
+    private final Map<String, Track> byLesson = new ConcurrentHashMap<>();
+
+    /** Recomputes everything from the model; used after loading. */
+    void rebuild(Iterable<Course> courses, Iterable<User> users) {
+        byCourse.clear(); byLesson.clear();
+        for (Course c : courses) courseAdded(c);
+        for (User u : users) {
+            if (!(u instanceof Student)) continue;
+            Student s = (Student) u;
+            for (Map.Entry<String, Integer> e : s.getQuizScores().entrySet()) scoreChanged(s.getUserId(), e.getKey(), null, e.getValue());
+            for (Certificate cert : s.getCertificates()) certificateIssued(s.getUserId(), cert.getCourseId());
+        }
+    }
+
+    void courseAdded(Course c) {
+        Track t = new Track();
+        for (Lesson l : c.getLessons()) if (l.getQuiz() != null) t.slotOfLesson.put(l.getLessonId(), claimSlot(t));
+        byCourse.put(c.getCourseId(), t);
+        for (Lesson l : c.getLessons()) byLesson.put(l.getLessonId(), t);
+    }
+
+    void courseRemoved(Course c) {
+        byCourse.remove(c.getCourseId());
+        for (Lesson l : c.getLessons()) byLesson.remove(l.getLessonId());
+    }
+
+    void lessonAdded(String courseId, Lesson l, Function<String, Student> students) {
+        Track t = byCourse.get(courseId);
+        if (t == null) return;
+        byLesson.put(l.getLessonId(), t);
+        if (l.getQuiz() != null) quizAdded(l.getLessonId(), students);
+    }
+
+    /** The lesson now has a quiz, so passing it becomes required; past passes count straight away. */
+    void quizAdded(String lessonId, Function<String, Student> students) {
+        Track t = byLesson.get(lessonId);
+        if (t == null) return;
+        synchronized (t) {
+            if (t.slotOfLesson.containsKey(lessonId)) return;
+            int slot = claimSlot(t);
+            t.slotOfLesson.put(lessonId, slot);
+            // Anyone who has scored in this course has a progress entry, so only they can have passed it
+            for (Map.Entry<String, Progress> e : t.byStudent.entrySet()) {
+                Student s = students.apply(e.getKey());
+                if (s != null && passes(s.getQuizScores().get(lessonId))) { e.getValue().passed.set(slot); e.getValue().passedCount++; }
+            }
+        }
+    }
+
+    void lessonRemoved(String lessonId) {
+        Track t = byLesson.remove(lessonId);
+        if (t == null) return;
+        synchronized (t) {
+            Integer slot = t.slotOfLesson.remove(lessonId);
+            if (slot == null) return;
+            t.usedSlots.clear(slot);
+            for (Progress p : t.byStudent.values()) if (p.passed.get(slot)) { p.passed.clear(slot); p.passedCount--; }
+        }
+    }
+
+    /** Call when a student's best score for a lesson moves from {@code before} to {@code after}. */
+    void scoreChanged(String studentId, String lessonId, Integer before, Integer after) {
+        Track t = byLesson.get(lessonId);
+        if (t == null) return;
+        synchronized (t) {
+            Progress p = t.progress(studentId);
+            Integer slot = t.slotOfLesson.get(lessonId);
+            if (slot == null || passes(before) == passes(after)) return;
+            if (passes(after)) { p.passed.set(slot); p.passedCount++; }
+            else { p.passed.clear(slot); p.passedCount--; }
+        }
+    }
+
+    void certificateIssued(String studentId, String courseId) {
+        Track t = courseId == null ? null : byCourse.get(courseId);
+        if (t == null) return;
+        synchronized (t) { t.progress(studentId).certified = true; }
+    }
+
+    /** True if every required lesson is passed and no certificate has been issued yet. */
+    boolean readyForCertificate(String studentId, String courseId) {
+        Track t = byCourse.get(courseId);
+        if (t == null) return false;
+        synchronized (t) {
+            Progress p = t.byStudent.get(studentId);
+            if (p != null && p.certified) return false;
+            return (p == null ? 0 : p.passedCount) == t.slotOfLesson.size();
+        }
+    }
+
+    /** Share of the course's required lessons the student has passed, 0-100. */
+    int percentComplete(String studentId, String courseId) {
+        Track t = byCourse.get(courseId);
+        if (t == null) return 0;
+        synchronized (t) {
+            Progress p = t.byStudent.get(studentId);
+            int required = t.slotOfLesson.size();
+            if (required == 0) return p != null && p.certified ? 100 : 0;
+            return p == null ? 0 : p.passedCount * 100 / required;
+        }
+    }
+
+    private static int claimSlot(Track t) {
+        int slot = t.usedSlots.nextClearBit(0);
+        t.usedSlots.set(slot);
+        return slot;
+    }
+
+    private static boolean passes(Integer score) { return score != null && score >= PASS_SCORE; }
+}
@@ -0,0 +1,32 @@
+package database;
+
+import models.Course;
+import models.CourseStatus;
+
+import java.util.function.Predicate;
+
+/**
+ * Describes a course lookup answered by {@link JsonDatabaseManager#queryCourses(CourseQuery)}.
+ * Status and instructor narrow the search through the course indexes; the optional filter,
+ * title sort and offset/limit are applied to that candidate set only.
+ */
+public class CourseQuery {
+    CourseStatus status;
+    String instructorId;
+    Predicate<Course> filter;
+    boolean sortByTitle;
+    int offset = 0;
+    int limit = Integer.MAX_VALUE;
+
+    public static CourseQuery withStatus(CourseStatus status) { return new CourseQuery().status(status); }
+    public static CourseQuery byInstructor(String instructorId) { return new CourseQuery().instructor(instructorId); }
+
+    public CourseQuery status(CourseStatus status) { this.status = status; return this; }
+    public CourseQuery instructor(String instructorId) { this.instructorId = instructorId; return this; }
+    public CourseQuery filter(Predicate<Course> filter) { this.filter = this.filter == null ? filter : this.filter.and(filter); return this; }
+    public CourseQuery sortByTitle() { this.sortByTitle = true; return this; }
+    public CourseQuery page(int offset, int limit) {
+        if (offset < 0 || limit < 0) throw new IllegalArgumentException("offset and limit must be >= 0");
+        this.offset = offset; this.limit = limit; return this;
+    }
+}
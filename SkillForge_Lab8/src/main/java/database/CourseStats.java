@@ -0,0 +1,135 @@
+package database;
+
+import models.Certificate;
+import models.Course;
+import models.Lesson;
+import models.Student;
+import models.User;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Running per-course aggregates behind {@link JsonDatabaseManager#getCourseStatistics}: enrolled
+ * students, passed (student, lesson) pairs, the sum of their best scores and certificates issued. Every mutation that
+ * can move a statistic reports its delta here, so reading the averages is O(1). A lesson counts
+ * as passed at a best score of 50 or more, matching {@link Student#isLessonCompleted}.
+ * <p>
+ * Counters are atomic because quiz submissions for one course arrive under different student
+ * locks; events that remove a lesson or course run under the exclusive lock.
+ */
+class CourseStats {
+    static final int PASS_SCORE = 50;
+
+    /** Aggregates for one course. */
+    static final class Totals {
+        final AtomicInteger enrolled = new AtomicInteger();
+        final AtomicLong passed = new AtomicLong();
+        final AtomicLong scoreSum = new AtomicLong();
+        final AtomicInteger certificates = new AtomicInteger();
+
+        void add(Integer score, int sign) {
+            if (score == null || score < PASS_SCORE) return;
+            passed.addAndGet(sign);
+            scoreSum.addAndGet((long) sign * score);
+        }
+    }
+
+    private final Map<String, Totals> byCourse = new ConcurrentHashMap<>();
+    private final Map<String, String> courseOfLesson = new ConcurrentHashMap<>();
+    private final EnrollmentIndex enrollments;
+
+    CourseStats(EnrollmentIndex enrollments) { this.enrollments = enrollments; }
+
+    /** Recomputes everything from the model; used after loading. */
+    void rebuild(Iterable<Course> courses, Iterable<User> users, Function<String, Student> students) {
+        byCourse.clear(); courseOfLesson.clear();
+        for (Course c : courses) {
+            Totals t = courseAdded(c);
+            for (String sId : c.getStudents()) {
+                Student s = students.apply(sId);
+                if (s != null) enrolled(c, s, t);
+            }
+        }
+        for (User u : users) {
+            if (u instanceof Student) for (Certificate cert : ((Student) u).getCertificates()) certificateIssued(cert.getCourseId());
+        }
+    }
+
+    /** The live counters for a course, or null if it is unknown. */
+    Totals totals(String courseId) { return byCourse.get(courseId); }
+
+    Totals courseAdded(Course c) {
+        Totals t = new Totals();
+        byCourse.put(c.getCourseId(), t);
+        for (Lesson l : c.getLessons()) courseOfLesson.put(l.getLessonId(), c.getCourseId());
+        return t;
+    }
+
+    void courseRemoved(Course c) {
+        byCourse.remove(c.getCourseId());
+        for (Lesson l : c.getLessons()) courseOfLesson.remove(l.getLessonId());
+    }
+
+    void lessonAdded(String courseId, String lessonId) { courseOfLesson.put(lessonId, courseId); }
+
+    /** Call after the lesson has left the course; drops every enrolled student's pass for it. */
+    void lessonRemoved(Course c, String lessonId, Function<String, Student> students) {
+        courseOfLesson.remove(lessonId);
+        Totals t = byCourse.get(c.getCourseId());
+        if (t == null) return;
+        for (String sId : c.getStudents()) {
+            Student s = students.apply(sId);
+            if (s != null) t.add(s.getQuizScores().get(lessonId), -1);
+        }
+    }
+
+    /** Call once when the student joins the course's student list. */
+    void enrolled(Course c, Student s) {
+        Totals t = byCourse.get(c.getCourseId());
+        if (t != null) enrolled(c, s, t);
+    }
+
+    private void enrolled(Course c, Student s, Totals t) {
+        t.enrolled.incrementAndGet();
+        for (Lesson l : c.getLessons()) t.add(s.getQuizScores().get(l.getLessonId()), +1);
+    }
+
+    /** Call once when the student leaves the course's student list. */
+    void unenrolled(Course c, Student s) {
+        Totals t = byCourse.get(c.getCourseId());
+        if (t == null) return;
+        t.enrolled.decrementAndGet();
+        for (Lesson l : c.getLessons()) t.add(s.getQuizScores().get(l.getLessonId()), -1);
+    }
+
+    /** Call when a student's best score for a lesson moves from {@code before} to {@code after}. */
+    void scoreChanged(Student s, String lessonId, Integer before, Integer after) {
+        if (Objects.equals(before, after)) return;
+        String courseId = courseOfLesson.get(lessonId);
+        Totals t = courseId == null ? null : byCourse.get(courseId);
+        if (t == null || !enrollments.studentHasCourse(s.getUserId(), courseId)) return;
+        t.add(before, -1);
+        t.add(after, +1);
+    }
+
+    void certificateIssued(String courseId) {
+        Totals t = courseId == null ? null : byCourse.get(courseId);
+        if (t != null) t.certificates.incrementAndGet();
+    }
+
+    /** Returns the course's averages, or null if the course is unknown. */
+    double[] averages(Course c) {
+        Totals t = byCourse.get(c.getCourseId());
+        if (t == null) return null;
+        long passed = t.passed.get();
+        long possible = (long) t.enrolled.get() * c.getLessons().size();
+        double avgScore = passed > 0 ? (double) t.scoreSum.get() / passed : 0.0;
+        double avgCompletion = possible > 0 ? (double) passed / possible * 100 : 0.0;
+        return new double[] { avgCompletion, avgScore };
+    }
+}
@@ -0,0 +1,45 @@
+package database;
+
+import java.util.List;
+
+/**
+ * One change made through {@link JsonDatabaseManager}, published once it is applied. Events
+ * name what changed by id only; the models themselves are the live objects the manager hands
+ * out, so a listener re-reads whatever it shows.
+ */
+public final class DataEvent {
+    public enum Kind {
+        COURSE_CREATED, COURSE_UPDATED, COURSE_STATUS_CHANGED, COURSE_DELETED,
+        LESSON_ADDED, LESSON_UPDATED, LESSON_DELETED,
+        ENROLLED, UNENROLLED, SCORE_CHANGED, CERTIFICATE_ISSUED
+    }
+
+    /**
+     * Receives the events published since the last delivery, oldest first, on the Event Dispatch
+     * Thread. Register with {@link JsonDatabaseManager#addDataListener}.
+     */
+    public interface Listener {
+        void changed(List<DataEvent> batch);
+    }
+
+    private final Kind kind;
+    private final String courseId, lessonId, studentId;
+
+    private DataEvent(Kind kind, String courseId, String lessonId, String studentId) {
+        this.kind = kind; this.courseId = courseId; this.lessonId = lessonId; this.studentId = studentId;
+    }
+
+    static DataEvent course(Kind kind, String courseId) { return new DataEvent(kind, courseId, null, null); }
+    static DataEvent lesson(Kind kind, String courseId, String lessonId) { return new DataEvent(kind, courseId, lessonId, null); }
+    static DataEvent student(Kind kind, String studentId, String courseId, String lessonId) { return new DataEvent(kind, courseId, lessonId, studentId); }
+
+    public Kind kind() { return kind; }
+    public String courseId() { return courseId; }
+    /** Set for lesson and score events. */
+    public String lessonId() { return lessonId; }
+    /** Set for enrollment, score and certificate events. */
+    public String studentId() { return studentId; }
+
+    @Override
+    public String toString() { return kind + "[course=" + courseId + ", lesson=" + lessonId + ", student=" + studentId + "]"; }
+}
@@ -0,0 +1,45 @@
+package database;
+
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans {@link DataEvent}s out to listeners on the Event Dispatch Thread. Publishing only queues
+ * the event, so it is safe under the manager's locks; events queued before the EDT gets round to
+ * them go out together, one call per listener, so a bulk grading run costs each window one update
+ * rather than thousands. With no listeners (the HTTP server, tools) nothing is queued at all.
+ */
+class DataEventBus {
+    private final List<DataEvent.Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ConcurrentLinkedQueue<DataEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    void add(DataEvent.Listener l) { listeners.add(l); }
+    void remove(DataEvent.Listener l) { listeners.remove(l); }
+
+    void publish(DataEvent e) {
+        if (listeners.isEmpty()) return;
+        pending.add(e);
+        if (scheduled.compareAndSet(false, true)) EventQueue.invokeLater(this::deliver);
+    }
+
+    private void deliver() {
+        scheduled.set(false); // before draining, so an event queued meanwhile schedules another pass
+        List<DataEvent> batch = new ArrayList<>();
+        for (DataEvent e; (e = pending.poll()) != null; ) batch.add(e);
+        if (batch.isEmpty()) return;
+        batch = Collections.unmodifiableList(batch);
+        for (DataEvent.Listener l : listeners) {
+            try {
+                l.changed(batch);
+            } catch (RuntimeException ex) {
+                ex.printStackTrace(); // one broken window must not starve the others
+            }
+        }
+    }
+}
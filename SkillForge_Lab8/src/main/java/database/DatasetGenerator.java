@@ -0,0 +1,345 @@
+package database;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Writes a synthetic data directory for capacity planning: users.json, courses.json and the
+ * lesson bodies, in the format the app loads.
+ * <pre>
+ *   java -cp ... database.DatasetGenerator dataDir users [courses]
+ * </pre>
+ * One user in 100 is an instructor, the rest are students (plus the usual admin); courses default
+ * to one per 50 users. Course popularity follows a Zipf law ({@code -Dskillforge.gen.zipf},
+ * default 1.0) and each student enrolls in a geometric number of approved courses with mean
+ * {@code -Dskillforge.gen.enrollments} (default 3). Students work through their courses' quizzes
+ * in order, retrying failed ones, and keep their best score per lesson, exactly as the app would
+ * have recorded; a student who passes every quiz holds the certificate. With
+ * {@code -Dskillforge.gen.history=true} every attempt is also written to history.jsonl, in the
+ * submission format {@link JsonDatabaseManager#gradeSubmissions(Path)} reads.
+ * <p>
+ * Records are streamed out one at a time: only per-course shapes and the int arrays that invert
+ * enrollments are held, so millions of users fit in a small heap. Every student's password is
+ * {@value #PASSWORD} and the admin keeps admin123. The same seed ({@code -Dskillforge.gen.seed})
+ * always produces the same files.
+ */
+public final class DatasetGenerator {
+    static final String PASSWORD = "password";
+    private static final int MAX_LESSONS = 12, OPTIONS = 4, MAX_ATTEMPTS = 3, MAX_ENROLLMENTS = 20;
+    private static final int STUDENT = 1, INSTRUCTOR = 2, COURSE = 3, LESSON = 4, QUIZ = 5, CERTIFICATE = 6;
+    private static final LocalDate TERM_START = LocalDate.of(2026, 1, 5);
+    private static final String[] TOPICS = {
+        "Java", "Python", "Databases", "Algorithms", "Networking", "Security", "Statistics", "Design",
+        "Calculus", "Physics", "Marketing", "Accounting", "Spanish", "Photography", "Cloud", "Testing",
+        "Compilers", "Graphics", "Robotics", "Economics", "Writing", "Biology", "Chemistry", "Music"
+    };
+    private static final String[] LEVELS = { "Introduction to", "Practical", "Advanced", "Applied", "Foundations of", "Mastering" };
+
+    private final long seed;
+    private final int instructors, students, courses;
+    private final double zipf;
+    private final double meanEnrollments;
+    private final CourseShape[] shapes;
+    private final int[] approved;
+    private int[] enrollStart, enrolled; // student -> approved course indexes, CSR style
+
+    private long scores, certificates, attempts;
+
+    DatasetGenerator(int users, int courses, long seed, double zipf, double meanEnrollments) {
+        this.seed = seed;
+        this.instructors = Math.max(1, users / 100);
+        this.students = users - 1 - instructors;
+        this.courses = courses;
+        this.zipf = zipf;
+        this.meanEnrollments = meanEnrollments;
+        if (students < 1 || courses < 1) throw new IllegalArgumentException("need at least 3 users and 1 course");
+        shapes = new CourseShape[courses];
+        int[] ok = new int[courses];
+        int n = 0;
+        for (int c = 0; c < courses; c++) {
+            shapes[c] = new CourseShape(c);
+            if (shapes[c].status.equals("APPROVED")) ok[n++] = c;
+        }
+        approved = Arrays.copyOf(ok, n);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: DatasetGenerator dataDir users [courses]");
+            System.exit(2);
+        }
+        Path dir = Paths.get(args[0]);
+        int users = Integer.parseInt(args[1]);
+        int courses = args.length > 2 ? Integer.parseInt(args[2]) : Math.max(10, users / 50);
+        if (Files.exists(dir.resolve("users.json")) || Files.exists(dir.resolve("courses.json"))) {
+            System.err.println(dir + " already holds data; pick an empty directory");
+            System.exit(1);
+        }
+        DatasetGenerator gen = new DatasetGenerator(users, courses, Long.getLong("skillforge.gen.seed", 42),
+                Double.parseDouble(System.getProperty("skillforge.gen.zipf", "1.0")),
+                Double.parseDouble(System.getProperty("skillforge.gen.enrollments", "3")));
+        long t0 = System.nanoTime();
+        gen.write(dir, Boolean.getBoolean("skillforge.gen.history"));
+        System.out.printf("Wrote %d users, %d courses (%d approved), %d enrollments, %d quiz scores from %d attempts and %d certificates to %s in %.1f s%n",
+                users, courses, gen.approved.length, gen.enrolled.length, gen.scores, gen.attempts, gen.certificates, dir, (System.nanoTime() - t0) / 1e9);
+    }
+
+    void write(Path dir, boolean history) throws IOException {
+        Files.createDirectories(dir);
+        enroll();
+        Path users = dir.resolve("users.json.tmp"), coursesFile = dir.resolve("courses.json.tmp");
+        try (Writer h = history ? Files.newBufferedWriter(dir.resolve("history.jsonl"), StandardCharsets.UTF_8) : null) {
+            writeUsers(users, h);
+        }
+        writeCourses(coursesFile);
+        writeLessonBodies(dir.resolve(JsonDatabaseManager.LESSONS_DIR));
+        Files.move(coursesFile, dir.resolve("courses.json"));
+        Files.move(users, dir.resolve("users.json"));
+    }
+
+    // --- Ids and shapes ---
+    private String id(int kind, long i) { return new UUID(mix(seed + kind, i), mix(i, seed - kind)).toString(); }
+    private String lessonId(int c, int l) { return id(LESSON, (long) c * MAX_LESSONS + l); }
+    private SplittableRandom random(int kind, long i) { return new SplittableRandom(mix(seed * 31 + kind, i)); }
+
+    private static long mix(long a, long b) {
+        long x = a * 0x9E3779B97F4A7C15L + b;
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+
+    /** What the student pass needs to know about a course without writing it: status, owner and answer keys. */
+    private final class CourseShape {
+        final String status, title;
+        final int owner;
+        final int[][] key; // per lesson, the correct option per question; null for a lesson without a quiz
+
+        CourseShape(int c) {
+            SplittableRandom r = random(COURSE, c);
+            double s = r.nextDouble();
+            status = s < 0.85 ? "APPROVED" : s < 0.95 ? "PENDING" : "REJECTED";
+            title = LEVELS[r.nextInt(LEVELS.length)] + " " + TOPICS[r.nextInt(TOPICS.length)] + " " + (c + 1);
+            owner = r.nextInt(instructors);
+            key = new int[3 + r.nextInt(MAX_LESSONS - 2)][];
+            for (int l = 0; l < key.length; l++) {
+                if (r.nextInt(5) == 0) continue; // reading-only lesson
+                key[l] = new int[3 + r.nextInt(3)];
+                for (int q = 0; q < key[l].length; q++) key[l][q] = r.nextInt(OPTIONS);
+            }
+        }
+    }
+
+    /** Draws ranks 0..n-1 with probability proportional to 1/(rank+1)^s, by binary search over the cumulative weights. */
+    static final class Zipf {
+        private final double[] cdf;
+
+        Zipf(int n, double s) {
+            cdf = new double[n];
+            double sum = 0;
+            for (int k = 0; k < n; k++) cdf[k] = sum += 1 / Math.pow(k + 1, s);
+            for (int k = 0; k < n; k++) cdf[k] /= sum;
+        }
+
+        int next(SplittableRandom r) {
+            int i = Arrays.binarySearch(cdf, r.nextDouble());
+            return Math.min(i >= 0 ? i : -i - 1, cdf.length - 1);
+        }
+    }
+
+    // --- Enrollments ---
+    /** Picks every student's courses up front into two int arrays, so both files can list them. */
+    private void enroll() {
+        Zipf popularity = new Zipf(approved.length, zipf);
+        int cap = Math.min(MAX_ENROLLMENTS, Math.max(1, approved.length / 2));
+        enrollStart = new int[students + 1];
+        enrolled = new int[students * (int) Math.ceil(meanEnrollments)];
+        int n = 0;
+        for (int s = 0; s < students; s++) {
+            SplittableRandom r = random(STUDENT, s);
+            int want = 1;
+            while (want < cap && r.nextDouble() > 1 / meanEnrollments) want++;
+            if (n + want > enrolled.length) enrolled = Arrays.copyOf(enrolled, Math.max(n + want, enrolled.length + enrolled.length / 2));
+            int got = 0;
+            for (int tries = 0; got < want && tries < want * 8; tries++) {
+                int c = approved[popularity.next(r)];
+                boolean dup = false;
+                for (int i = n; i < n + got; i++) dup |= enrolled[i] == c;
+                if (!dup) enrolled[n + got++] = c;
+            }
+            n += got;
+            enrollStart[s + 1] = n;
+        }
+        enrolled = Arrays.copyOf(enrolled, n);
+    }
+
+    // --- users.json ---
+    private void writeUsers(Path file, Writer history) throws IOException {
+        String hash = PasswordHasher.hashPassword(PASSWORD);
+        try (JsonWriter w = new JsonWriter(new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16))) {
+            w.setIndent("  ");
+            w.beginArray();
+            user(w, "admin", "Admin", "admin@skillforge.com", PasswordHasher.hashPassword("admin123"), "Admin").endObject();
+            int[] ownedStart = new int[instructors + 1], owned = new int[courses];
+            for (CourseShape s : shapes) ownedStart[s.owner + 1]++;
+            for (int i = 0; i < instructors; i++) ownedStart[i + 1] += ownedStart[i];
+            int[] fill = ownedStart.clone();
+            for (int c = 0; c < courses; c++) owned[fill[shapes[c].owner]++] = c;
+            for (int i = 0; i < instructors; i++) {
+                user(w, id(INSTRUCTOR, i), "instructor" + i, "instructor" + i + "@skillforge.test", hash, "Instructor");
+                w.name("createdCourses").beginArray();
+                for (int k = ownedStart[i]; k < ownedStart[i + 1]; k++) w.value(id(COURSE, owned[k]));
+                w.endArray().endObject();
+            }
+            List<String> scoredLessons = new ArrayList<>();
+            List<Integer> bestScores = new ArrayList<>();
+            List<Integer> passedCourses = new ArrayList<>();
+            for (int s = 0; s < students; s++) {
+                user(w, id(STUDENT, s), "student" + s, studentEmail(s), hash, "Student");
+                w.name("enrolledCourses").beginArray();
+                for (int k = enrollStart[s]; k < enrollStart[s + 1]; k++) w.value(id(COURSE, enrolled[k]));
+                w.endArray();
+                scoredLessons.clear(); bestScores.clear(); passedCourses.clear();
+                study(s, scoredLessons, bestScores, passedCourses, history);
+                w.name("quizScores").beginObject();
+                for (int k = 0; k < scoredLessons.size(); k++) w.name(scoredLessons.get(k)).value(bestScores.get(k));
+                w.endObject();
+                w.name("certificates").beginArray();
+                SplittableRandom dates = random(CERTIFICATE, s);
+                for (int c : passedCourses) {
+                    w.beginObject().name("certificateId").value(id(CERTIFICATE, (long) s * courses + c)).name("studentId").value(id(STUDENT, s))
+                            .name("studentName").value("student" + s).name("courseId").value(id(COURSE, c)).name("courseTitle").value(shapes[c].title)
+                            .name("issueDate").value(TERM_START.plusDays(dates.nextInt(120)).toString()).endObject();
+                }
+                w.endArray().endObject();
+            }
+            w.endArray();
+        }
+    }
+
+    static String studentEmail(int s) { return "student" + s + "@skillforge.test"; }
+
+    private static JsonWriter user(JsonWriter w, String id, String name, String email, String hash, String role) throws IOException {
+        return w.beginObject().name("userId").value(id).name("username").value(name).name("email").value(email).name("passwordHash").value(hash).name("role").value(role);
+    }
+
+    /**
+     * Plays one student's term: in each enrolled course they get some way through the lessons,
+     * answering each quiz with a per-student skill and retrying a fail up to {@value #MAX_ATTEMPTS}
+     * times. Collects the best score per lesson and the courses where every quiz was passed.
+     */
+    private void study(int s, List<String> lessons, List<Integer> best, List<Integer> passed, Writer history) throws IOException {
+        SplittableRandom r = random(QUIZ, s);
+        double skill = 0.35 + 0.6 * r.nextDouble();
+        String studentId = history == null ? null : id(STUDENT, s);
+        for (int k = enrollStart[s]; k < enrollStart[s + 1]; k++) {
+            int c = enrolled[k];
+            int[][] key = shapes[c].key;
+            int reached = r.nextDouble() < 0.3 ? key.length : r.nextInt(key.length + 1);
+            int quizzes = 0, passes = 0;
+            for (int[] questions : key) if (questions != null) quizzes++;
+            for (int l = 0; l < reached; l++) {
+                if (key[l] == null) continue;
+                int top = -1;
+                for (int a = 0; a < MAX_ATTEMPTS && top < 50; a++) {
+                    int[] answers = new int[key[l].length];
+                    int right = 0;
+                    for (int q = 0; q < answers.length; q++) {
+                        boolean correct = r.nextDouble() < Math.min(0.98, skill + 0.1 * a);
+                        answers[q] = correct ? key[l][q] : (key[l][q] + 1 + r.nextInt(OPTIONS - 1)) % OPTIONS;
+                        if (correct) right++;
+                    }
+                    // Same rounding as QuizGrader
+                    top = Math.max(top, (int) (((double) right / answers.length) * 100));
+                    attempts++;
+                    if (history != null) attempt(history, studentId, id(COURSE, c), lessonId(c, l), answers);
+                }
+                lessons.add(lessonId(c, l));
+                best.add(top);
+                scores++;
+                if (top >= 50) passes++;
+            }
+            // As the app decides: every quiz in the course passed, whatever lessons are left
+            if (quizzes > 0 && passes == quizzes) { passed.add(c); certificates++; }
+        }
+    }
+
+    private static void attempt(Writer out, String studentId, String courseId, String lessonId, int[] answers) throws IOException {
+        StringBuilder line = new StringBuilder(160).append("{\"studentId\":\"").append(studentId).append("\",\"courseId\":\"").append(courseId)
+                .append("\",\"lessonId\":\"").append(lessonId).append("\",\"answers\":[");
+        for (int q = 0; q < answers.length; q++) line.append(q == 0 ? "" : ",").append(answers[q]);
+        out.write(line.append("]}\n").toString());
+    }
+
+    // --- courses.json and lesson bodies ---
+    private void writeCourses(Path file) throws IOException {
+        // Invert the enrollments (course -> students) with a counting sort over int arrays
+        int[] start = new int[courses + 1];
+        for (int c : enrolled) start[c + 1]++;
+        for (int c = 0; c < courses; c++) start[c + 1] += start[c];
+        int[] members = new int[enrolled.length], fill = start.clone();
+        for (int s = 0; s < students; s++) for (int k = enrollStart[s]; k < enrollStart[s + 1]; k++) members[fill[enrolled[k]]++] = s;
+
+        try (JsonWriter w = new JsonWriter(new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16))) {
+            w.setIndent("  ");
+            w.beginArray();
+            for (int c = 0; c < courses; c++) {
+                CourseShape shape = shapes[c];
+                String topic = shape.title.substring(0, shape.title.lastIndexOf(' '));
+                w.beginObject().name("courseId").value(id(COURSE, c)).name("title").value(shape.title)
+                        .name("description").value("A " + shape.key.length + "-lesson course: " + topic + ", with worked examples and quizzes.")
+                        .name("instructorId").value(id(INSTRUCTOR, shape.owner));
+                w.name("lessons").beginArray();
+                for (int l = 0; l < shape.key.length; l++) {
+                    String lessonId = lessonId(c, l);
+                    w.beginObject().name("lessonId").value(lessonId).name("title").value("Lesson " + (l + 1) + ": " + topic).name("resources").beginArray().endArray();
+                    if (shape.key[l] != null) {
+                        w.name("quiz").beginObject().name("quizId").value(id(QUIZ, (long) c * MAX_LESSONS + l)).name("lessonId").value(lessonId).name("questions").beginArray();
+                        for (int q = 0; q < shape.key[l].length; q++) {
+                            w.beginObject().name("questionText").value("Question " + (q + 1)).name("options").beginArray();
+                            for (int o = 0; o < OPTIONS; o++) w.value("Option " + (char) ('A' + o));
+                            w.endArray().name("correctOptionIndex").value(shape.key[l][q]).endObject();
+                        }
+                        w.endArray().endObject();
+                    }
+                    w.endObject();
+                }
+                w.endArray();
+                w.name("students").beginArray();
+                for (int i = start[c]; i < start[c + 1]; i++) w.value(id(STUDENT, members[i]));
+                w.endArray();
+                w.name("status").value(shape.status).endObject();
+            }
+            w.endArray();
+        }
+    }
+
+    /** Writes lesson bodies through the {@link LessonContentStore}, a thousand courses per commit. */
+    private void writeLessonBodies(Path dir) {
+        LessonContentStore store = new LessonContentStore(dir, 0);
+        Map<String, LessonContentStore.Body> batch = new LinkedHashMap<>();
+        for (int c = 0; c < courses; c++) {
+            String topic = shapes[c].title.substring(0, shapes[c].title.lastIndexOf(' '));
+            for (int l = 0; l < shapes[c].key.length; l++) {
+                batch.put(lessonId(c, l), new LessonContentStore.Body("Part " + (l + 1) + " of " + topic + ". Read the notes, work through the examples"
+                        + (shapes[c].key[l] != null ? " and take the quiz at the end." : "."), null));
+            }
+            if (c % 1000 == 999 || c == courses - 1) { store.putAll(batch); batch.clear(); }
+        }
+    }
+}
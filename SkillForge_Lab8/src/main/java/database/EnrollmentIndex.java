@@ -0,0 +1,207 @@
+package database;
+
+import models.Certificate;
+import models.Course;
+import models.Student;
+import models.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enrollment membership, in both directions, over dense int ids. Every user and course gets a
+ * small int the first time it is seen, and membership is kept as {@link IntSet}s: course ->
+ * students and student -> courses. These sets are the membership: once {@link #track} has read a
+ * loaded record's list, {@code Course.getStudents()} and {@code Student.getEnrolledCourses()}
+ * become read-only views derived from them, so enroll and unenroll are O(1) with no list to copy,
+ * and a record serialized while another thread enrolls still sees one consistent set. A listing
+ * is in the order the members were first seen, which keeps saved files stable; it is built once
+ * per change to the set and shared by every read until the next enroll or unenroll.
+ * <p>
+ * It also keeps the other student records that point at a course, for cascading deletes:
+ * lesson -> students holding a quiz score for it, and course -> students holding its
+ * certificate. Deleting a lesson or course then visits only those students.
+ */
+class EnrollmentIndex {
+    private final DenseIds userIds = new DenseIds();
+    private final DenseIds courseIds = new DenseIds();
+    private final SetTable studentsOfCourse = new SetTable();
+    private final SetTable coursesOfStudent = new SetTable();
+    private final DenseIds lessonIds = new DenseIds();
+    private final SetTable scorersOfLesson = new SetTable();
+    private final SetTable holdersOfCourse = new SetTable();
+
+    void rebuild(Iterable<Course> courses, Iterable<User> users) {
+        studentsOfCourse.clear(); coursesOfStudent.clear(); scorersOfLesson.clear(); holdersOfCourse.clear();
+        for (Course c : courses) track(c);
+        for (User u : users) if (u instanceof Student) track((Student) u);
+    }
+
+    /** Takes over the course's loaded student list; from then on it lists what this index holds. */
+    void track(Course c) {
+        String id = c.getCourseId();
+        MemberSet students = studentsOfCourse.get(courseIds.of(id));
+        for (String sId : c.getStudents()) students.add(userIds.of(sId));
+        c.bindStudents(() -> studentsOf(id));
+    }
+
+    /** Takes over the student's loaded course list, and records their scores and certificates. */
+    void track(Student s) {
+        String id = s.getUserId();
+        int sId = userIds.of(id);
+        MemberSet enrolled = coursesOfStudent.get(sId);
+        for (String cId : s.getEnrolledCourses()) enrolled.add(courseIds.of(cId));
+        for (String lId : s.getQuizScores().keySet()) scorersOfLesson.get(lessonIds.of(lId)).add(sId);
+        for (Certificate cert : s.getCertificates()) holdersOfCourse.get(courseIds.of(cert.getCourseId())).add(sId);
+        s.bindEnrolledCourses(() -> coursesOf(id));
+    }
+
+    /** Records the course on the student's side; false if it was already there. */
+    boolean addCourseToStudent(String studentId, String courseId) { return coursesOfStudent.get(userIds.of(studentId)).add(courseIds.of(courseId)); }
+    /** Records the student on the course's side; false if it was already there. */
+    boolean addStudentToCourse(String courseId, String studentId) { return studentsOfCourse.get(courseIds.of(courseId)).add(userIds.of(studentId)); }
+    boolean removeCourseFromStudent(String studentId, String courseId) { return remove(coursesOfStudent, userIds.find(studentId), courseIds.find(courseId)); }
+    boolean removeStudentFromCourse(String courseId, String studentId) { return remove(studentsOfCourse, courseIds.find(courseId), userIds.find(studentId)); }
+
+    /** True if the course has the student. */
+    boolean courseHasStudent(String courseId, String studentId) { return contains(studentsOfCourse, courseIds.find(courseId), userIds.find(studentId)); }
+    /** True if the student has the course. */
+    boolean studentHasCourse(String studentId, String courseId) { return contains(coursesOfStudent, userIds.find(studentId), courseIds.find(courseId)); }
+
+    int studentCount(String courseId) {
+        MemberSet s = studentsOfCourse.peek(courseIds.find(courseId));
+        return s == null ? 0 : s.size();
+    }
+
+    /** Ids of the students enrolled in the course, in the order they were first seen; read-only. */
+    List<String> studentsOf(String courseId) { return listed(studentsOfCourse.peek(courseIds.find(courseId)), userIds); }
+    /** Ids of the courses the student is enrolled in, in the order they were first seen; read-only. */
+    List<String> coursesOf(String studentId) { return listed(coursesOfStudent.peek(userIds.find(studentId)), courseIds); }
+
+    /** The student now has a score for the lesson. */
+    void scored(String studentId, String lessonId) { scorersOfLesson.get(lessonIds.of(lessonId)).add(userIds.of(studentId)); }
+    void unscored(String studentId, String lessonId) { remove(scorersOfLesson, lessonIds.find(lessonId), userIds.find(studentId)); }
+    /** Ids of the students holding a score for the lesson, in no particular order. */
+    List<String> scorersOf(String lessonId) { return names(scorersOfLesson.peek(lessonIds.find(lessonId)), userIds); }
+
+    void certified(String studentId, String courseId) { holdersOfCourse.get(courseIds.of(courseId)).add(userIds.of(studentId)); }
+    /** Ids of the students holding the course's certificate, in no particular order. */
+    List<String> certificateHoldersOf(String courseId) { return names(holdersOfCourse.peek(courseIds.find(courseId)), userIds); }
+
+    /** Drops the lesson's scorer set; the scores themselves are removed by the caller. */
+    void lessonRemoved(String lessonId) { scorersOfLesson.drop(lessonIds.find(lessonId)); }
+    /** Drops the course's own sets; student-side entries are removed by the caller. */
+    void courseRemoved(String courseId) {
+        int c = courseIds.find(courseId);
+        studentsOfCourse.drop(c);
+        holdersOfCourse.drop(c);
+    }
+
+    private static boolean remove(SetTable t, int key, int member) {
+        MemberSet s = t.peek(key);
+        return s != null && member >= 0 && s.remove(member);
+    }
+
+    private static boolean contains(SetTable t, int key, int member) {
+        MemberSet s = t.peek(key);
+        return s != null && member >= 0 && s.contains(member);
+    }
+
+    private static List<String> listed(MemberSet set, DenseIds ids) {
+        return set == null ? Collections.emptyList() : set.listed(ids);
+    }
+
+    private static List<String> names(MemberSet set, DenseIds ids) {
+        return set == null ? new ArrayList<>() : names(set.toArray(), ids);
+    }
+
+    private static List<String> names(int[] members, DenseIds ids) {
+        Arrays.sort(members);
+        List<String> out = new ArrayList<>(members.length);
+        for (int m : members) out.add(ids.name(m));
+        return out;
+    }
+
+    /**
+     * An {@link IntSet} that keeps its sorted listing until the next add or remove. Changes and
+     * listing share this monitor, so a listing is never cached over a change it missed.
+     */
+    private static final class MemberSet {
+        private final IntSet set = new IntSet();
+        private List<String> listed; // guarded by this; null once stale
+
+        synchronized boolean add(int v) {
+            if (!set.add(v)) return false;
+            listed = null;
+            return true;
+        }
+
+        synchronized boolean remove(int v) {
+            if (!set.remove(v)) return false;
+            listed = null;
+            return true;
+        }
+
+        boolean contains(int v) { return set.contains(v); }
+        int size() { return set.size(); }
+        int[] toArray() { return set.toArray(); }
+
+        synchronized List<String> listed(DenseIds ids) {
+            if (listed == null) listed = Collections.unmodifiableList(names(set.toArray(), ids));
+            return listed;
+        }
+    }
+
+    /** Assigns each distinct string id a dense int, starting at 0; ids are never reused. */
+    private static final class DenseIds {
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private volatile String[] names = new String[16];
+        private int next; // guarded by this
+
+        int of(String id) {
+            Integer i = ids.get(id);
+            return i != null ? i : assign(id);
+        }
+
+        /** Returns the id's int, or -1 if it has never been seen. */
+        int find(String id) {
+            Integer i = id == null ? null : ids.get(id);
+            return i == null ? -1 : i;
+        }
+
+        String name(int i) { return names[i]; }
+
+        private synchronized int assign(String id) {
+            Integer i = ids.get(id);
+            if (i != null) return i;
+            if (next == names.length) names = Arrays.copyOf(names, next * 2);
+            names[next] = id;
+            ids.put(id, next);
+            return next++;
+        }
+    }
+
+    /** A growable array of sets keyed by dense id. */
+    private static final class SetTable {
+        private volatile MemberSet[] sets = new MemberSet[16];
+
+        MemberSet peek(int key) {
+            MemberSet[] s = sets;
+            return key >= 0 && key < s.length ? s[key] : null;
+        }
+
+        synchronized MemberSet get(int key) {
+            if (key >= sets.length) sets = Arrays.copyOf(sets, Math.max(key + 1, sets.length * 2));
+            MemberSet s = sets[key];
+            if (s == null) sets[key] = s = new MemberSet();
+            return s;
+        }
+
+        synchronized void drop(int key) { if (key >= 0 && key < sets.length) sets[key] = null; }
+        synchronized void clear() { sets = new MemberSet[16]; }
+    }
+}
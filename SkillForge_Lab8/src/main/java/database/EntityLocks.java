@@ -0,0 +1,65 @@
+package database;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Locking scheme for {@link JsonDatabaseManager}.
+ * <ul>
+ *   <li>{@link #exclusive()}: structural changes that add or remove users/courses or re-bucket a
+ *       course in the secondary indexes.</li>
+ *   <li>{@link #entities(String...)}: changes inside existing records. Holds the shared side of
+ *       the structure lock plus one stripe per touched id, so writers on different students and
+ *       courses run in parallel while writers on the same record are serialized.</li>
+ *   <li>{@link #shared()}: readers that iterate the global lists or the secondary indexes.</li>
+ * </ul>
+ * Point lookups need no lock at all. None of these are reentrant; take one per public operation.
+ */
+final class EntityLocks {
+    /** A held lock, released by try-with-resources. */
+    interface Held extends AutoCloseable {
+        @Override void close();
+    }
+
+    private final StampedLock structure = new StampedLock();
+    private final ReentrantLock[] stripes;
+
+    EntityLocks(int stripeCount) {
+        stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) stripes[i] = new ReentrantLock();
+    }
+
+    Held shared() {
+        long stamp = structure.readLock();
+        return () -> structure.unlockRead(stamp);
+    }
+
+    Held exclusive() {
+        long stamp = structure.writeLock();
+        return () -> structure.unlockWrite(stamp);
+    }
+
+    Held entities(String... ids) {
+        long stamp = structure.readLock();
+        // Always lock stripes in ascending order so two writers can never wait on each other
+        int[] idx = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) idx[i] = stripe(ids[i]);
+        Arrays.sort(idx);
+        int n = 0;
+        for (int i = 0; i < idx.length; i++) if (i == 0 || idx[i] != idx[i - 1]) idx[n++] = idx[i];
+        int[] held = Arrays.copyOf(idx, n);
+        for (int i : held) stripes[i].lock();
+        return () -> {
+            for (int i = held.length - 1; i >= 0; i--) stripes[held[i]].unlock();
+            structure.unlockRead(stamp);
+        };
+    }
+
+    /** The stripe {@link #entities} locks for {@code id}; package-private so tests can pick ids that don't collide. */
+    int stripe(String id) {
+        int h = id == null ? 0 : id.hashCode();
+        h ^= (h >>> 16);
+        return h & (stripes.length - 1);
+    }
+}
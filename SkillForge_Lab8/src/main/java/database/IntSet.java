@@ -0,0 +1,69 @@
+package database;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Open-addressing hash set of non-negative ints with O(1) add, remove and contains and no boxing.
+ * Slots hold {@code value + 1} so that 0 marks an empty slot; removal shifts the following run
+ * back instead of leaving tombstones. Methods are synchronized so readers may probe a set that
+ * another thread is growing.
+ */
+final class IntSet {
+    private int[] slots = new int[4];
+    private int size;
+
+    synchronized boolean add(int v) {
+        int i = find(v);
+        if (slots[i] != 0) return false;
+        slots[i] = v + 1;
+        if (++size * 4 > slots.length * 3) grow();
+        return true;
+    }
+
+    synchronized boolean contains(int v) { return slots[find(v)] != 0; }
+
+    synchronized boolean remove(int v) {
+        int i = find(v);
+        if (slots[i] == 0) return false;
+        slots[i] = 0;
+        size--;
+        int mask = slots.length - 1;
+        for (int j = (i + 1) & mask; slots[j] != 0; j = (j + 1) & mask) {
+            int home = hash(slots[j] - 1) & mask;
+            // Move the entry back if the gap at i lies between its home slot and j
+            if (((j - home) & mask) >= ((j - i) & mask)) { slots[i] = slots[j]; slots[j] = 0; i = j; }
+        }
+        return true;
+    }
+
+    synchronized int size() { return size; }
+
+    /** Visits a copy of the members, so the action may modify this set. */
+    void forEach(IntConsumer action) { for (int v : toArray()) action.accept(v); }
+
+    synchronized int[] toArray() {
+        int[] out = new int[size];
+        int n = 0;
+        for (int s : slots) if (s != 0) out[n++] = s - 1;
+        return out;
+    }
+
+    private int find(int v) {
+        int mask = slots.length - 1;
+        int i = hash(v) & mask;
+        while (slots[i] != 0 && slots[i] != v + 1) i = (i + 1) & mask;
+        return i;
+    }
+
+    private void grow() {
+        int[] old = slots;
+        slots = new int[old.length * 2];
+        for (int s : old) if (s != 0) slots[find(s - 1)] = s;
+    }
+
+    private static int hash(int v) { return v * 0x9E3779B9 >>> 7 ^ v; }
+
+    @Override
+    public synchronized String toString() { return Arrays.toString(toArray()); }
+}
@@ -0,0 +1,199 @@
+package database;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import models.Course;
+import models.User;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Snapshot + append-only journal. users.json/courses.json are the last snapshot; every commit
+ * appends one compact JSON line to the journal holding the full records it touched. Startup loads
+ * the snapshot and replays the journal on top. Once the journal passes {@code maxJournalBytes} it
+ * is sealed and a background thread folds it into a fresh snapshot, working only from the files
+ * on disk so it never reads the live, still-mutating model.
+ */
+class JournalStorage extends JsonFileStorage {
+    private final Path journalFile;
+    private final Path sealedFile;
+    private final long maxJournalBytes;
+    private final Gson compact = ModelTypeAdapters.register(new GsonBuilder()).create();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "journal-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+    private OutputStream out;
+    private long journalBytes;
+
+    JournalStorage(Gson gson, Path usersFile, Path coursesFile, Path journalFile, long maxJournalBytes) {
+        super(gson, usersFile, coursesFile);
+        this.journalFile = journalFile;
+        this.sealedFile = journalFile.resolveSibling(journalFile.getFileName() + ".sealed");
+        this.maxJournalBytes = maxJournalBytes;
+    }
+
+    @Override
+    public void load(List<User> users, List<Course> courses) {
+        super.load(users, courses);
+        Map<String, User> u = new LinkedHashMap<>();
+        for (User user : users) u.put(user.getUserId(), user);
+        Map<String, Course> c = new LinkedHashMap<>();
+        for (Course course : courses) c.put(course.getCourseId(), course);
+
+        // A sealed journal means the last compaction never finished; it is older than the live one.
+        replay(sealedFile, u, c);
+        long valid = replay(journalFile, u, c);
+        users.clear(); users.addAll(u.values());
+        courses.clear(); courses.addAll(c.values());
+
+        try {
+            // Cut off a record torn by a crash so new appends don't land behind it
+            long size = Files.exists(journalFile) ? Files.size(journalFile) : 0;
+            if (size > valid) {
+                try (FileChannel ch = FileChannel.open(journalFile, StandardOpenOption.WRITE)) { ch.truncate(valid); }
+            } else if (size < valid) {
+                Files.write(journalFile, new byte[] {'\n'}, StandardOpenOption.APPEND); // last record lost only its newline
+            }
+            journalBytes = valid;
+            out = new FileOutputStream(journalFile.toFile(), true);
+        } catch (IOException e) { throw new IllegalStateException("Cannot open journal " + journalFile, e); }
+        if (Files.exists(sealedFile)) scheduleCompaction();
+    }
+
+    @Override
+    public synchronized void commit(ChangeSet changes) {
+        if (changes.isEmpty()) return;
+        JsonObject rec = new JsonObject();
+        if (!changes.users.isEmpty()) rec.add("u", compact.toJsonTree(changes.users));
+        if (!changes.courses.isEmpty()) rec.add("c", compact.toJsonTree(changes.courses));
+        if (!changes.deletedCourses.isEmpty()) rec.add("d", compact.toJsonTree(changes.deletedCourses));
+        byte[] line = (compact.toJson(rec) + "\n").getBytes(StandardCharsets.UTF_8);
+        try {
+            out.write(line);
+            out.flush();
+            journalBytes += line.length;
+        } catch (IOException e) { e.printStackTrace(); return; }
+        if (journalBytes >= maxJournalBytes && !Files.exists(sealedFile)) seal();
+    }
+
+    /** Only the touched records go into the journal and compaction works from the files, so there is nothing to capture. */
+    @Override
+    public void ready() {}
+
+    @Override
+    public synchronized void close() {
+        try { if (out != null) out.close(); } catch (IOException e) { e.printStackTrace(); }
+        compactor.shutdown();
+        super.close();
+    }
+
+    private void seal() {
+        try {
+            out.close();
+            Files.move(journalFile, sealedFile, StandardCopyOption.ATOMIC_MOVE);
+            out = new FileOutputStream(journalFile.toFile(), true);
+            journalBytes = 0;
+        } catch (IOException e) { e.printStackTrace(); return; }
+        scheduleCompaction();
+    }
+
+    private void scheduleCompaction() {
+        if (compacting.compareAndSet(false, true)) compactor.execute(() -> {
+            try { compact(); } finally { compacting.set(false); }
+        });
+    }
+
+    /** Folds the sealed journal into the snapshot files, then drops it. */
+    private void compact() {
+        Map<String, JsonElement> u = keyed(readArray(usersFile), "userId");
+        Map<String, JsonElement> c = keyed(readArray(coursesFile), "courseId");
+        try (BufferedReader reader = Files.newBufferedReader(sealedFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonObject rec = parseRecord(line);
+                if (rec == null) break;
+                apply(rec, "u", "userId", u);
+                apply(rec, "c", "courseId", c);
+                if (rec.has("d")) for (JsonElement id : rec.getAsJsonArray("d")) c.remove(id.getAsString());
+            }
+            Map<Path, byte[]> files = new LinkedHashMap<>();
+            files.put(usersFile, toBytes(toArray(u)));
+            files.put(coursesFile, toBytes(toArray(c)));
+            committer.commitNow(files);
+            Files.delete(sealedFile);
+        } catch (IOException e) { e.printStackTrace(); }
+    }
+
+    private static JsonArray toArray(Map<String, JsonElement> records) {
+        JsonArray arr = new JsonArray();
+        for (JsonElement e : records.values()) arr.add(e);
+        return arr;
+    }
+
+    /** Applies every intact record in {@code file} and returns the byte length they span. */
+    private long replay(Path file, Map<String, User> u, Map<String, Course> c) {
+        long valid = 0;
+        if (!Files.exists(file)) return valid;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonObject rec = parseRecord(line);
+                if (rec == null) break;
+                valid += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                if (rec.has("u")) for (JsonElement e : rec.getAsJsonArray("u")) {
+                    User user = ModelTypeAdapters.USER.fromJsonTree(e);
+                    if (user != null) u.put(user.getUserId(), user);
+                }
+                if (rec.has("c")) for (JsonElement e : rec.getAsJsonArray("c")) {
+                    Course course = ModelTypeAdapters.COURSE.fromJsonTree(e);
+                    c.put(course.getCourseId(), course);
+                }
+                if (rec.has("d")) for (JsonElement id : rec.getAsJsonArray("d")) c.remove(id.getAsString());
+            }
+        } catch (IOException e) { e.printStackTrace(); }
+        return valid;
+    }
+
+    /** Returns null for a blank or torn record; a torn line can only be the last one written. */
+    private static JsonObject parseRecord(String line) {
+        if (line.isBlank()) return null;
+        try {
+            JsonElement e = JsonParser.parseString(line);
+            return e.isJsonObject() ? e.getAsJsonObject() : null;
+        } catch (JsonParseException ex) { return null; }
+    }
+
+    private static void apply(JsonObject rec, String key, String idField, Map<String, JsonElement> target) {
+        if (!rec.has(key)) return;
+        for (JsonElement e : rec.getAsJsonArray(key)) target.put(e.getAsJsonObject().get(idField).getAsString(), e);
+    }
+
+    private static Map<String, JsonElement> keyed(JsonArray arr, String idField) {
+        Map<String, JsonElement> m = new LinkedHashMap<>();
+        if (arr != null) for (JsonElement e : arr) m.put(e.getAsJsonObject().get(idField).getAsString(), e);
+        return m;
+    }
+}
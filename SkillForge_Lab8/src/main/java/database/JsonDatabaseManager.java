@@ -2,42 +2,91 @@ package database;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
 import models.*;
 
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 
+// try-with-resources holds EntityLocks for the length of a block without naming the lock in it
+@SuppressWarnings("try")
 public class JsonDatabaseManager {
 
     private static JsonDatabaseManager instance;
-    private static final String USERS_FILE = "data/users.json";
-    private static final String COURSES_FILE = "data/courses.json";
+    private static final String USERS_FILE = "users.json";
+    private static final String COURSES_FILE = "courses.json";
+    private static final String JOURNAL_FILE = "journal.log";
+    static final String SNAPSHOT_FILE_NAME = "skillforge.db";
+    static final String LESSONS_DIR = "lessons";
+    private static final String SHARDS_DIR = "shards";
+    private static final boolean VERIFY_STATS = Boolean.getBoolean("skillforge.stats.verify");
 
-    private List<User> users;
-    private List<Course> courses;
+    private List<User> users = new ArrayList<>();
+    private List<Course> courses = new ArrayList<>();
     private Gson gson;
+    private Storage storage;
+    private LessonContentStore lessonContent;
+
+    // Hash indexes over users/courses so id and email lookups don't scan the lists.
+    // Concurrent maps so lookups stay lock-free while writers update them.
+    private Map<String, User> usersById = new ConcurrentHashMap<>();
+    private Map<String, User> usersByEmail = new ConcurrentHashMap<>();
+    private Map<String, Course> coursesById = new ConcurrentHashMap<>();
+    private CourseIndex courseIndex = new CourseIndex();
+    private final EntityLocks locks = new EntityLocks(64);
+    private final EnrollmentIndex enrollments = new EnrollmentIndex();
+    private final CourseStats courseStats = new CourseStats(enrollments);
+    private final CourseProgress courseProgress = new CourseProgress();
+    private final QuizGrader grader = new QuizGrader();
+    private final SearchIndex search = new SearchIndex();
+    private final DataEventBus events = new DataEventBus();
+    private final List<Runnable> beforeClose = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Thread shutdownHook = new Thread(this::close, "skillforge-shutdown");
+
+    /**
+     * Opens the data directory named by {@code -Dskillforge.dataDir} (default {@code data}).
+     * Package-private so benchmarks can open fresh instances; the application uses {@link #getInstance()}.
+     */
+    JsonDatabaseManager() {
+        Path dataDir = Paths.get(System.getProperty("skillforge.dataDir", "data"));
+        gson = ModelTypeAdapters.register(new GsonBuilder()).setPrettyPrinting().create();
+        long writeBehindMs = Long.getLong("skillforge.writeBehind.ms", 0);
+        Storage base = createStorage(gson, locks, dataDir);
+        // A whole-model snapshot must not see writers mid-change, so it is taken by the flusher under the exclusive lock
+        storage = writeBehindMs > 0 || base.snapshotsWholeModel() ? new WriteBehindStorage(base, Math.max(0, writeBehindMs), locks) : base;
+        lessonContent = new LessonContentStore(dataDir.resolve(LESSONS_DIR), Integer.getInteger("skillforge.lessonCache.size", 256));
+        load();
+        moveLessonContentOutOfLine();
+        storage.ready();
+        indexLessonContentInBackground();
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
 
-    private JsonDatabaseManager() {
-        gson = new GsonBuilder().setPrettyPrinting().create();
-        loadCourses();
-        loadUsers();
-        
         if (getUserByEmail("admin@skillforge.com") == null) {
             String adminId = UUID.randomUUID().toString();
             String adminPass = PasswordHasher.hashPassword("admin123");
             Admin admin = new Admin(adminId, "Admin", "admin@skillforge.com", adminPass, "Admin");
             users.add(admin);
-            saveUsers();
+            indexUser(admin);
+            commit(new ChangeSet().user(admin));
         }
     }
 
@@ -47,189 +96,565 @@ public class JsonDatabaseManager {
     }
 
     // --- IO ---
-    @SuppressWarnings("unchecked")
-    private void loadUsers() {
-        users = new ArrayList<>();
-        try (FileReader reader = new FileReader(USERS_FILE)) {
-            Type type = new TypeToken<List<Map<String, Object>>>() {}.getType();
-            List<Map<String, Object>> userMaps = gson.fromJson(reader, type);
-            if (userMaps == null) return;
-            for (Map<String, Object> userMap : userMaps) {
-                String role = (String) userMap.get("role");
-                if ("Student".equals(role)) users.add(gson.fromJson(gson.toJson(userMap), Student.class));
-                else if ("Instructor".equals(role)) users.add(gson.fromJson(gson.toJson(userMap), Instructor.class));
-                else if ("Admin".equals(role)) users.add(gson.fromJson(gson.toJson(userMap), Admin.class));
-            }
-        } catch (IOException e) { System.out.println("users.json not found, creating new."); }
+    /**
+     * Picks the persistence backend from {@code -Dskillforge.storage}: "json" (default) rewrites
+     * users.json/courses.json on every change, "journal" appends each change to data/journal.log
+     * and compacts it into the JSON snapshot in the background past
+     * {@code -Dskillforge.journal.maxBytes} (default 4 MB), "sharded" spreads records over
+     * data/shards so a change only rewrites the shard it lands in, and "binary" keeps everything in
+     * the compact data/skillforge.db snapshot (see {@link SnapshotConverter} for JSON import/export).
+     * Setting {@code -Dskillforge.writeBehind.ms} to a positive latency defers and coalesces
+     * commits on a background flusher; they are flushed on JVM shutdown.
+     * <p>
+     * Json, sharded and binary storage write their files on a committer thread: a call returns
+     * once its change is queued, and {@link #flush()} (run on close and JVM shutdown) waits for
+     * the disk. A crash can lose the last few acknowledged changes, though never tear the
+     * users/courses pair. Json and sharded storage encode only the touched records, under the
+     * writer's own entity locks; binary storage encodes the whole model, so it always goes through
+     * the write-behind flusher, which takes that snapshot under the exclusive lock.
+     */
+    private static Storage createStorage(Gson gson, EntityLocks locks, Path dataDir) {
+        Path usersFile = dataDir.resolve(USERS_FILE), coursesFile = dataDir.resolve(COURSES_FILE);
+        String mode = System.getProperty("skillforge.storage", "json");
+        Storage storage;
+        if ("journal".equalsIgnoreCase(mode)) {
+            long maxBytes = Long.getLong("skillforge.journal.maxBytes", 4L * 1024 * 1024);
+            storage = new JournalStorage(gson, usersFile, coursesFile, dataDir.resolve(JOURNAL_FILE), maxBytes);
+        } else if ("sharded".equalsIgnoreCase(mode)) {
+            storage = new ShardedStorage(gson, dataDir.resolve(SHARDS_DIR), usersFile, coursesFile, locks);
+        } else if ("binary".equalsIgnoreCase(mode)) {
+            storage = new BinaryStorage(gson, usersFile.resolveSibling(SNAPSHOT_FILE_NAME), usersFile, coursesFile);
+        } else {
+            storage = new JsonFileStorage(gson, usersFile, coursesFile, locks);
+        }
+        return storage;
     }
 
-    private synchronized void saveUsers() {
-        try (FileWriter writer = new FileWriter(USERS_FILE)) { gson.toJson(users, writer); } 
-        catch (IOException e) { e.printStackTrace(); }
+    private void load() {
+        users.clear(); courses.clear();
+        storage.load(users, courses);
+        usersById.clear(); usersByEmail.clear();
+        for (User u : users) indexUser(u);
+        coursesById.clear(); courseIndex.clear();
+        for (Course c : courses) { coursesById.put(c.getCourseId(), c); courseIndex.add(c); }
+        enrollments.rebuild(courses, users);
+        courseStats.rebuild(courses, users, this::getStudentById);
+        courseProgress.rebuild(courses, users);
+        search.clear();
+        for (Course c : courses) search.courseAdded(c);
     }
 
-    private void loadCourses() {
-        try (FileReader reader = new FileReader(COURSES_FILE)) {
-            Type type = new TypeToken<List<Course>>() {}.getType();
-            courses = gson.fromJson(reader, type);
-            if (courses == null) courses = new ArrayList<>();
-        } catch (IOException e) { 
-            System.out.println("courses.json not found, creating new.");
-            courses = new ArrayList<>();
+    private void commit(ChangeSet changes) { storage.commit(changes); }
+
+    /**
+     * Lesson bodies live in the {@link LessonContentStore}, not in the course records. Bodies still
+     * inline (data written before the store existed, or a {@link SnapshotConverter} export) are
+     * copied there unless the store already has one, which is newer since content edits only
+     * rewrite the lesson file. The inline copies are only dropped in memory: the course files shed
+     * them the next time those courses are saved, so opening a data directory never rewrites it.
+     */
+    private void moveLessonContentOutOfLine() {
+        Map<String, LessonContentStore.Body> bodies = new LinkedHashMap<>();
+        for (Course c : courses) for (Lesson l : c.getLessons()) {
+            if (l.getContent() == null && (l.getResources() == null || l.getResources().isEmpty())) continue;
+            if (!lessonContent.has(l.getLessonId())) bodies.put(l.getLessonId(), new LessonContentStore.Body(l.getContent(), l.getResources()));
+            l.setContent(null);
+            l.setResources(new ArrayList<>());
         }
+        lessonContent.putAll(bodies);
     }
 
-    private synchronized void saveCourses() {
-        try (FileWriter writer = new FileWriter(COURSES_FILE)) { gson.toJson(courses, writer); } 
-        catch (IOException e) { e.printStackTrace(); }
+    /**
+     * Lesson bodies are files of their own, so reading them all at startup would hold up the first
+     * screen on a large catalog. Titles and descriptions are searchable as soon as {@link #load}
+     * returns; this fills in lesson content course by course on a daemon thread, under each
+     * course's lock so it never races a lesson edit.
+     */
+    private void indexLessonContentInBackground() {
+        List<String> ids;
+        try (EntityLocks.Held h = locks.shared()) { ids = new ArrayList<>(coursesById.keySet()); }
+        Thread t = new Thread(() -> {
+            for (String id : ids) {
+                if (closed.get()) return;
+                try (EntityLocks.Held h = locks.entities(id)) {
+                    Course c = getCourseById(id);
+                    if (c != null) for (Lesson l : c.getLessons()) search.lessonChanged(id, l.getLessonId(), l.getTitle(), lessonContent.peekContent(l.getLessonId()));
+                }
+            }
+        }, "search-indexer");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** The locks every operation takes; package-private so tests can hold one and watch who waits. */
+    EntityLocks locks() { return locks; }
+
+    /** Blocks until every change made so far has reached the storage files. */
+    public void flush() { storage.flush(); }
+
+    /**
+     * Runs the {@link #beforeClose} tasks in registration order, then flushes and closes storage.
+     * Called once by the shutdown hook; the JVM runs hooks concurrently, so this is the only one,
+     * and anything that still feeds changes in (such as {@link AsyncDatabase}'s queue) drains
+     * here first. Later calls do nothing.
+     */
+    void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        try { Runtime.getRuntime().removeShutdownHook(shutdownHook); }
+        catch (IllegalStateException e) { /* already shutting down, running as the hook */ }
+        for (Runnable r : beforeClose) r.run();
+        storage.flush();
+        storage.close();
+        lessonContent.close();
     }
 
+    /** Registers work that must finish before storage closes, e.g. draining a queue of pending writes. */
+    void beforeClose(Runnable task) { beforeClose.add(task); }
+
+    // --- Change events ---
+    /** Registers a listener for {@link DataEvent}s, delivered in batches on the Event Dispatch Thread. */
+    public void addDataListener(DataEvent.Listener l) { events.add(l); }
+    public void removeDataListener(DataEvent.Listener l) { events.remove(l); }
+
     // --- Auth ---
     public User loginUser(String email, String password) {
-        for (User user : users) {
-            if (user.getEmail().equalsIgnoreCase(email) && PasswordHasher.checkPassword(password, user.getPasswordHash())) {
-                return user;
-            }
-        }
+        User user = getUserByEmail(email);
+        if (user != null && PasswordHasher.checkPassword(password, user.getPasswordHash())) return user;
         return null;
     }
     public User getUserByEmail(String email) {
-        for (User user : users) if (user.getEmail().equalsIgnoreCase(email)) return user;
-        return null;
+        return email == null ? null : usersByEmail.get(foldEmail(email));
     }
     public boolean registerUser(String username, String email, String password, String role) {
-        if (getUserByEmail(email) != null) return false;
         String userId = UUID.randomUUID().toString();
         String passwordHash = PasswordHasher.hashPassword(password);
         User newUser;
         if ("Student".equals(role)) newUser = new Student(userId, username, email, passwordHash, role, new ArrayList<>(), new HashMap<>(), new ArrayList<>());
         else if ("Instructor".equals(role)) newUser = new Instructor(userId, username, email, passwordHash, role, new ArrayList<>());
         else newUser = new Admin(userId, username, email, passwordHash, role);
-        users.add(newUser);
-        saveUsers();
-        return true;
+        try (EntityLocks.Held h = locks.exclusive()) {
+            if (getUserByEmail(email) != null) return false;
+            users.add(newUser);
+            indexUser(newUser);
+            if (newUser instanceof Student) enrollments.track((Student) newUser);
+            commit(new ChangeSet().user(newUser));
+            return true;
+        }
     }
 
     // --- Student ---
     public List<Course> getApprovedCourses() {
-        return courses.stream().filter(c -> c.getStatus() == CourseStatus.APPROVED).collect(Collectors.toList());
+        try (EntityLocks.Held h = locks.shared()) { return new ArrayList<>(courseIndex.withStatus(CourseStatus.APPROVED)); }
     }
     public List<Course> getEnrolledCourses(String studentId) {
         Student student = getStudentById(studentId);
-        if (student == null) return new ArrayList<>();
-        return courses.stream().filter(c -> c.getStatus() == CourseStatus.APPROVED && student.getEnrolledCourses().contains(c.getCourseId())).collect(Collectors.toList());
+        List<Course> result = new ArrayList<>();
+        if (student == null) return result;
+        for (String id : student.getEnrolledCourses()) {
+            Course c = coursesById.get(id);
+            if (c != null && c.getStatus() == CourseStatus.APPROVED) result.add(c);
+        }
+        return result;
     }
     public void enrollStudentInCourse(String studentId, String courseId) {
-        Student student = getStudentById(studentId);
-        Course course = getCourseById(courseId);
-        if (student != null && course != null && course.getStatus() == CourseStatus.APPROVED) {
-            if (!student.getEnrolledCourses().contains(courseId)) student.getEnrolledCourses().add(courseId);
-            if (!course.getStudents().contains(studentId)) course.getStudents().add(studentId);
-            saveUsers(); saveCourses();
+        try (EntityLocks.Held h = locks.entities(studentId, courseId)) {
+            Student student = getStudentById(studentId);
+            Course course = getCourseById(courseId);
+            if (student != null && course != null && course.getStatus() == CourseStatus.APPROVED) {
+                ChangeSet changes = new ChangeSet();
+                if (enrollments.addCourseToStudent(studentId, courseId)) changes.user(student);
+                if (enrollments.addStudentToCourse(courseId, studentId)) { courseStats.enrolled(course, student); changes.course(course); }
+                commit(changes);
+                if (!changes.isEmpty()) events.publish(DataEvent.student(DataEvent.Kind.ENROLLED, studentId, courseId, null));
+            }
         }
     }
+    public void unenrollStudentFromCourse(String studentId, String courseId) {
+        try (EntityLocks.Held h = locks.entities(studentId, courseId)) {
+            Student student = getStudentById(studentId);
+            Course course = getCourseById(courseId);
+            if (student == null || course == null) return;
+            ChangeSet changes = new ChangeSet();
+            if (enrollments.removeStudentFromCourse(courseId, studentId)) { courseStats.unenrolled(course, student); changes.course(course); }
+            if (enrollments.removeCourseFromStudent(studentId, courseId)) changes.user(student);
+            commit(changes);
+            if (!changes.isEmpty()) events.publish(DataEvent.student(DataEvent.Kind.UNENROLLED, studentId, courseId, null));
+        }
+    }
+    /** O(1) membership test against the student's enrolled courses. */
+    public boolean isEnrolled(String studentId, String courseId) { return enrollments.studentHasCourse(studentId, courseId); }
 
     // --- Instructor ---
     public List<Course> getCoursesByInstructor(String instructorId) {
-        return courses.stream().filter(c -> c.getInstructorId().equals(instructorId)).collect(Collectors.toList());
+        try (EntityLocks.Held h = locks.shared()) { return new ArrayList<>(courseIndex.byInstructor(instructorId)); }
     }
     public List<Student> getEnrolledStudents(String courseId) {
         Course course = getCourseById(courseId);
-        if (course == null) return new ArrayList<>();
-        return users.stream().filter(u -> u instanceof Student && course.getStudents().contains(u.getUserId())).map(u -> (Student)u).collect(Collectors.toList());
+        List<Student> result = new ArrayList<>();
+        if (course == null) return result;
+        for (String id : course.getStudents()) {
+            Student s = getStudentById(id);
+            if (s != null) result.add(s);
+        }
+        return result;
     }
     public void createCourse(String title, String description, String instructorId) {
         String courseId = UUID.randomUUID().toString();
         Course newCourse = new Course(courseId, title, description, instructorId, new ArrayList<>(), new ArrayList<>(), CourseStatus.PENDING);
-        courses.add(newCourse);
-        Instructor instructor = getInstructorById(instructorId);
-        if (instructor != null) { instructor.getCreatedCourses().add(courseId); saveUsers(); }
-        saveCourses();
+        try (EntityLocks.Held h = locks.exclusive()) {
+            courses.add(newCourse);
+            coursesById.put(courseId, newCourse);
+            courseIndex.add(newCourse);
+            enrollments.track(newCourse);
+            courseStats.courseAdded(newCourse);
+            courseProgress.courseAdded(newCourse);
+            search.courseAdded(newCourse);
+            Instructor instructor = getInstructorById(instructorId);
+            ChangeSet changes = new ChangeSet().course(newCourse);
+            if (instructor != null) { instructor.getCreatedCourses().add(courseId); changes.user(instructor); }
+            commit(changes);
+            events.publish(DataEvent.course(DataEvent.Kind.COURSE_CREATED, courseId));
+        }
     }
     
     public void addLesson(String courseId, String title, String content, Quiz quiz) {
-        Course course = getCourseById(courseId);
-        if (course != null) { 
-            String lessonId = UUID.randomUUID().toString();
-            Lesson newLesson = new Lesson(lessonId, title, content, new ArrayList<>(), quiz);
-            course.getLessons().add(newLesson);
-            saveCourses(); 
+        try (EntityLocks.Held h = locks.entities(courseId)) {
+            Course course = getCourseById(courseId);
+            if (course != null) {
+                String lessonId = UUID.randomUUID().toString();
+                lessonContent.put(lessonId, content, new ArrayList<>());
+                Lesson newLesson = new Lesson(lessonId, title, null, new ArrayList<>(), quiz);
+                course.getLessons().add(newLesson);
+                courseStats.lessonAdded(courseId, lessonId);
+                courseProgress.lessonAdded(courseId, newLesson, this::getStudentById);
+                search.lessonChanged(courseId, lessonId, title, content);
+                commit(new ChangeSet().course(course));
+                events.publish(DataEvent.lesson(DataEvent.Kind.LESSON_ADDED, courseId, lessonId));
+            }
         }
     }
 
     public void updateCourse(String id, String title, String desc) {
-        Course c = getCourseById(id);
-        if (c != null) { c.setTitle(title); c.setDescription(desc); saveCourses(); }
+        try (EntityLocks.Held h = locks.entities(id)) {
+            Course c = getCourseById(id);
+            if (c != null) { c.setTitle(title); c.setDescription(desc); search.courseChanged(c); commit(new ChangeSet().course(c)); events.publish(DataEvent.course(DataEvent.Kind.COURSE_UPDATED, id)); }
+        }
     }
     
     public void deleteCourse(String courseId) {
+        try (EntityLocks.Held h = locks.exclusive()) { deleteCourseLocked(courseId); }
+    }
+    private void deleteCourseLocked(String courseId) {
         Course c = getCourseById(courseId);
         if (c == null) return;
         courses.remove(c);
-        for (User user : users) {
-            if (user instanceof Instructor) ((Instructor)user).getCreatedCourses().remove(courseId);
-            else if (user instanceof Student) {
-                Student s = (Student)user;
-                s.getEnrolledCourses().remove(courseId);
-                s.getCertificates().removeIf(cert -> cert.getCourseId().equals(courseId));
-                if (c.getLessons() != null) for (Lesson l : c.getLessons()) s.getQuizScores().remove(l.getLessonId());
-            }
+        coursesById.remove(courseId);
+        courseIndex.remove(c);
+        courseStats.courseRemoved(c);
+        courseProgress.courseRemoved(c);
+        search.courseRemoved(courseId);
+        ChangeSet changes = new ChangeSet().deleteCourse(courseId);
+        Instructor owner = getInstructorById(c.getInstructorId());
+        if (owner != null && owner.getCreatedCourses().remove(courseId)) changes.user(owner);
+        // Only students the reverse indexes tie to this course can refer to it
+        Set<String> affected = new HashSet<>(enrollments.studentsOf(courseId));
+        affected.addAll(enrollments.certificateHoldersOf(courseId));
+        for (Lesson l : c.getLessons()) affected.addAll(enrollments.scorersOf(l.getLessonId()));
+        for (String sId : affected) {
+            Student s = getStudentById(sId);
+            if (s == null) continue;
+            boolean changed = enrollments.removeCourseFromStudent(sId, courseId);
+            changed |= s.getCertificates().removeIf(cert -> cert.getCourseId().equals(courseId));
+            for (Lesson l : c.getLessons()) changed |= s.getQuizScores().remove(l.getLessonId()) != null;
+            if (changed) changes.user(s);
         }
-        saveCourses(); saveUsers();
+        enrollments.courseRemoved(courseId);
+        for (Lesson l : c.getLessons()) enrollments.lessonRemoved(l.getLessonId());
+        commit(changes);
+        events.publish(DataEvent.course(DataEvent.Kind.COURSE_DELETED, courseId));
+        List<String> lessonIds = new ArrayList<>();
+        for (Lesson l : c.getLessons()) lessonIds.add(l.getLessonId());
+        lessonContent.delete(lessonIds);
     }
     
     public void deleteLesson(String cId, String lId) {
-        Course c = getCourseById(cId);
-        if (c != null) { c.getLessons().removeIf(l -> l.getLessonId().equals(lId)); saveCourses(); }
+        // Exclusive so no quiz submission for this lesson races the statistics rollback
+        try (EntityLocks.Held h = locks.exclusive()) {
+            Course c = getCourseById(cId);
+            if (c != null && c.getLessons().removeIf(l -> l.getLessonId().equals(lId))) {
+                courseStats.lessonRemoved(c, lId, this::getStudentById);
+                courseProgress.lessonRemoved(lId);
+                search.lessonRemoved(cId, lId);
+                ChangeSet changes = new ChangeSet().course(c);
+                for (String sId : enrollments.scorersOf(lId)) {
+                    Student s = getStudentById(sId);
+                    if (s != null && s.getQuizScores().remove(lId) != null) changes.user(s);
+                }
+                enrollments.lessonRemoved(lId);
+                commit(changes);
+                lessonContent.delete(Collections.singletonList(lId));
+                events.publish(DataEvent.lesson(DataEvent.Kind.LESSON_DELETED, cId, lId));
+            }
+        }
     }
     
     public void updateLesson(String cId, String lId, String title, String content, Quiz newQuiz) {
-        Course c = getCourseById(cId);
-        if (c != null) {
+        try (EntityLocks.Held h = locks.entities(cId)) {
+            Course c = getCourseById(cId);
+            if (c == null) return;
             for (Lesson l : c.getLessons()) {
-                if (l.getLessonId().equals(lId)) { 
-                    l.setTitle(title); l.setContent(content);
-                    if (newQuiz != null) l.setQuiz(newQuiz);
-                    saveCourses(); return; 
+                if (l.getLessonId().equals(lId)) {
+                    LessonContentStore.Body body = lessonContent.get(lId);
+                    if (!Objects.equals(body.content, content)) lessonContent.put(lId, content, body.resources);
+                    boolean metadataChanged = !Objects.equals(l.getTitle(), title) || newQuiz != null;
+                    l.setTitle(title);
+                    search.lessonChanged(cId, lId, title, content);
+                    if (newQuiz != null) { l.setQuiz(newQuiz); courseProgress.quizAdded(lId, this::getStudentById); }
+                    if (metadataChanged) commit(new ChangeSet().course(c));
+                    events.publish(DataEvent.lesson(DataEvent.Kind.LESSON_UPDATED, cId, lId));
+                    return;
                 }
             }
         }
     }
 
     // --- Admin ---
-    public List<Course> getPendingCourses() { return courses.stream().filter(c -> c.getStatus() == CourseStatus.PENDING).collect(Collectors.toList()); }
-    public void approveCourse(String id) { Course c = getCourseById(id); if (c != null) { c.setStatus(CourseStatus.APPROVED); saveCourses(); } }
-    public void rejectCourse(String id) { Course c = getCourseById(id); if (c != null) { c.setStatus(CourseStatus.REJECTED); saveCourses(); } }
+    public List<Course> getPendingCourses() {
+        try (EntityLocks.Held h = locks.shared()) { return new ArrayList<>(courseIndex.withStatus(CourseStatus.PENDING)); }
+    }
+    public void approveCourse(String id) { setCourseStatus(id, CourseStatus.APPROVED); }
+    public void rejectCourse(String id) { setCourseStatus(id, CourseStatus.REJECTED); }
+    private void setCourseStatus(String id, CourseStatus status) {
+        // Re-buckets the course in the status index, so this is a structural change
+        try (EntityLocks.Held h = locks.exclusive()) {
+            Course c = getCourseById(id);
+            if (c == null) return;
+            CourseStatus old = c.getStatus();
+            c.setStatus(status);
+            courseIndex.statusChanged(c, old);
+            commit(new ChangeSet().course(c));
+            if (old != status) events.publish(DataEvent.course(DataEvent.Kind.COURSE_STATUS_CHANGED, id));
+        }
+    }
+
+    // --- Course Queries ---
+    /**
+     * Full-text search over course titles and descriptions and lesson titles and content: the best
+     * {@code limit} courses containing every word of {@code text}, the last word matched as a
+     * prefix unless followed by a space. {@code status} null searches every course.
+     */
+    public List<Course> searchCourses(String text, CourseStatus status, int limit) { return searchCourses(text, status, null, limit); }
+    /** As {@link #searchCourses(String, CourseStatus, int)}, counting only courses that pass {@code filter} towards the limit. */
+    public List<Course> searchCourses(String text, CourseStatus status, Predicate<Course> filter, int limit) {
+        return search.search(text == null ? "" : text, status, filter, limit);
+    }
+    public List<Course> queryCourses(CourseQuery q) {
+        if (!q.sortByTitle) return pageInIndexOrder(q);
+        List<Course> matches;
+        try (EntityLocks.Held h = locks.shared()) { matches = candidates(q); }
+        matches.sort(Comparator.comparing(Course::getTitle, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+        if (q.offset >= matches.size()) return new ArrayList<>();
+        int end = (int) Math.min(matches.size(), (long) q.offset + q.limit);
+        return new ArrayList<>(matches.subList(q.offset, end));
+    }
+    public int countCourses(CourseQuery q) {
+        try (EntityLocks.Held h = locks.shared()) {
+            if (q.filter == null) return indexedCandidates(q).size();
+            int n = 0;
+            for (Course c : indexedCandidates(q)) if (q.filter.test(c)) n++;
+            return n;
+        }
+    }
+    /** Unsorted pages come straight off the index walk, stopping at the end of the page, so a page costs O(offset + limit) without copying the candidates. */
+    private List<Course> pageInIndexOrder(CourseQuery q) {
+        List<Course> page = new ArrayList<>(Math.min(q.limit, 1024));
+        try (EntityLocks.Held h = locks.shared()) {
+            int skip = q.offset;
+            for (Course c : indexedCandidates(q)) {
+                if (page.size() >= q.limit) break;
+                if (q.filter != null && !q.filter.test(c)) continue;
+                if (skip > 0) { skip--; continue; }
+                page.add(c);
+            }
+        }
+        return page;
+    }
+    private List<Course> candidates(CourseQuery q) {
+        Collection<Course> base = indexedCandidates(q);
+        if (q.filter == null) return new ArrayList<>(base);
+        List<Course> out = new ArrayList<>();
+        for (Course c : base) if (q.filter.test(c)) out.add(c);
+        return out;
+    }
+    private Collection<Course> indexedCandidates(CourseQuery q) {
+        if (q.status != null && q.instructorId != null) return courseIndex.byInstructorAndStatus(q.instructorId, q.status);
+        if (q.status != null) return courseIndex.withStatus(q.status);
+        if (q.instructorId != null) return courseIndex.byInstructor(q.instructorId);
+        return courses;
+    }
 
     // --- Quiz & Certificate ---
     public void submitQuiz(String sId, String cId, String lId, int score) {
-        Student s = getStudentById(sId);
-        if (s == null) return;
+        try (EntityLocks.Held h = locks.entities(sId)) {
+            Student s = getStudentById(sId);
+            if (s == null) return;
+            recordScore(s, cId, lId, score);
+            commit(new ChangeSet().user(s));
+        }
+    }
+
+    /** Grades the answers against the lesson's quiz, records the score as {@link #submitQuiz} does and returns it. */
+    public int submitQuizAnswers(String sId, String cId, String lId, int[] answers) {
+        Quiz quiz = quizOf(cId, lId);
+        if (quiz == null) throw new IllegalArgumentException("No quiz for lesson " + lId);
+        int score = grader.grade(quiz, answers);
+        submitQuiz(sId, cId, lId, score);
+        return score;
+    }
+
+    /**
+     * Grades a batch of submissions in parallel and records every graded score with
+     * {@link #submitQuiz} semantics, in input order, as one commit. Submissions naming an unknown
+     * student, course or lesson, or with the wrong number of answers, come back rejected.
+     */
+    public List<QuizGrader.Result> gradeSubmissions(List<QuizGrader.Submission> batch) {
+        // Every course's quizzes, read under the courses' locks so no lesson changes halfway through
+        Map<String, Map<String, Quiz>> quizzes = new HashMap<>();
+        String[] courseIds = batch.stream().map(sub -> sub.courseId).distinct().toArray(String[]::new);
+        try (EntityLocks.Held h = locks.entities(courseIds)) {
+            for (String cId : courseIds) {
+                Map<String, Quiz> byLesson = new HashMap<>();
+                Course c = getCourseById(cId);
+                if (c != null) for (Lesson l : c.getLessons()) if (l.getQuiz() != null) byLesson.put(l.getLessonId(), l.getQuiz());
+                quizzes.put(cId, byLesson);
+            }
+        }
+        List<QuizGrader.Result> results = grader.gradeAll(batch, sub -> quizzes.get(sub.courseId).get(sub.lessonId));
+
+        String[] studentIds = results.stream().filter(QuizGrader.Result::isGraded).map(r -> r.submission.studentId).distinct().toArray(String[]::new);
+        if (studentIds.length == 0) return results;
+        try (EntityLocks.Held h = locks.entities(studentIds)) {
+            ChangeSet changes = new ChangeSet();
+            for (int i = 0; i < results.size(); i++) {
+                QuizGrader.Result r = results.get(i);
+                if (!r.isGraded()) continue;
+                Student s = getStudentById(r.submission.studentId);
+                if (s == null) { results.set(i, QuizGrader.Result.rejected(r.submission, "Unknown student " + r.submission.studentId)); continue; }
+                recordScore(s, r.submission.courseId, r.submission.lessonId, r.score);
+                changes.user(s);
+            }
+            if (!changes.isEmpty()) commit(changes);
+        }
+        return results;
+    }
+
+    /** Reads a CSV or JSON Lines batch (see {@link QuizGrader#read}) and grades it. */
+    public List<QuizGrader.Result> gradeSubmissions(Path file) throws IOException { return gradeSubmissions(QuizGrader.read(file)); }
+
+    private Quiz quizOf(String cId, String lId) {
+        Course c = getCourseById(cId);
+        if (c != null) for (Lesson l : c.getLessons()) if (l.getLessonId().equals(lId)) return l.getQuiz();
+        return null;
+    }
+
+    /** Keeps the best score and issues the certificate if this pass completes the course; caller holds the student's lock. */
+    private void recordScore(Student s, String cId, String lId, int score) {
         Integer old = s.getQuizScores().get(lId);
-        if (old == null || score > old) s.getQuizScores().put(lId, score);
-        saveUsers();
-        if (score >= 50) checkCourseCompletion(sId, cId);
+        if (old == null || score > old) {
+            s.getQuizScores().put(lId, score);
+            if (old == null) enrollments.scored(s.getUserId(), lId);
+            courseStats.scoreChanged(s, lId, old, score);
+            courseProgress.scoreChanged(s.getUserId(), lId, old, score);
+            events.publish(DataEvent.student(DataEvent.Kind.SCORE_CHANGED, s.getUserId(), cId, lId));
+        }
+        if (score >= 50) checkCourseCompletion(s, cId);
     }
     public void unmarkLessonAsCompleted(String sId, String lId) {
-        Student s = getStudentById(sId);
-        if (s != null && s.getQuizScores().containsKey(lId)) { s.getQuizScores().remove(lId); saveUsers(); }
+        try (EntityLocks.Held h = locks.entities(sId)) {
+            Student s = getStudentById(sId);
+            Integer old = s == null ? null : s.getQuizScores().remove(lId);
+            if (old != null) {
+                enrollments.unscored(sId, lId);
+                courseStats.scoreChanged(s, lId, old, null);
+                courseProgress.scoreChanged(sId, lId, old, null);
+                commit(new ChangeSet().user(s));
+                events.publish(DataEvent.student(DataEvent.Kind.SCORE_CHANGED, sId, null, lId));
+            }
+        }
     }
-    private void checkCourseCompletion(String sId, String cId) {
-        Student s = getStudentById(sId); Course c = getCourseById(cId);
-        if (s == null || c == null) return;
-        for (Certificate cert : s.getCertificates()) if (cert.getCourseId().equals(cId)) return;
-        for (Lesson l : c.getLessons()) if (l.getQuiz() != null && !s.isLessonCompleted(l.getLessonId())) return;
+    private void checkCourseCompletion(Student s, String cId) {
+        Course c = getCourseById(cId);
+        if (c == null || !courseProgress.readyForCertificate(s.getUserId(), cId)) return;
         String certId = UUID.randomUUID().toString();
         s.addCertificate(new Certificate(certId, s.getUserId(), s.getUsername(), c.getCourseId(), c.getTitle(), LocalDate.now().toString()));
-        saveUsers();
+        courseProgress.certificateIssued(s.getUserId(), c.getCourseId());
+        enrollments.certified(s.getUserId(), c.getCourseId());
+        courseStats.certificateIssued(c.getCourseId());
+        events.publish(DataEvent.student(DataEvent.Kind.CERTIFICATE_ISSUED, s.getUserId(), cId, null));
     }
+
+    /** Percentage of the course's quizzes the student has passed, from the progress counters. */
+    public int getCourseProgress(String studentId, String courseId) { return courseProgress.percentComplete(studentId, courseId); }
+    // --- Lesson Content ---
+    public String getLessonContent(String lessonId) { return lessonContent.get(lessonId).content; }
+    public List<String> getLessonResources(String lessonId) { return lessonContent.get(lessonId).resources; }
+
     public List<Certificate> getCertificates(String sId) {
         Student s = getStudentById(sId);
         return s != null ? s.getCertificates() : new ArrayList<>();
     }
     
     // --- REAL ANALYTICS LOGIC (Fixed) ---
+    /**
+     * Average completion and best quiz score for a course, read from the incrementally kept
+     * aggregates. With {@code -Dskillforge.stats.verify=true} every call is also checked against a
+     * full recomputation and a mismatch is reported on stderr.
+     */
     public Map<String, Double> getCourseStatistics(String cId) {
+        Course course = getCourseById(cId);
+        double[] avg = course == null ? null : courseStats.averages(course);
+        Map<String, Double> stats = new HashMap<>();
+        stats.put("avgCompletion", avg == null ? 0.0 : avg[0]);
+        stats.put("avgQuizScore", avg == null ? 0.0 : avg[1]);
+        if (VERIFY_STATS) {
+            Map<String, Double> full = recomputeCourseStatistics(cId);
+            if (!sameStats(stats, full)) System.err.println("Course statistics drifted for " + cId + ": " + stats + " vs " + full);
+        }
+        return stats;
+    }
+
+    /**
+     * Builds the admin platform report from a snapshot of every course's aggregates. The snapshot
+     * is taken under the shared lock, which only holds off course creation and deletion; the
+     * report itself is computed without any lock.
+     */
+    public PlatformReport getPlatformReport() {
+        List<PlatformReport.CourseView> snapshot = new ArrayList<>(courses.size());
+        try (EntityLocks.Held h = locks.shared()) {
+            for (Course c : courses) {
+                CourseStats.Totals t = courseStats.totals(c.getCourseId());
+                if (t != null) snapshot.add(new PlatformReport.CourseView(c, t));
+            }
+        }
+        return PlatformReport.build(snapshot, id -> { Instructor i = getInstructorById(id); return i == null ? null : i.getUsername(); });
+    }
+
+    /** Cross-checks every course's aggregates against a full recomputation; returns the ids that differ. */
+    public List<String> verifyCourseStatistics() {
+        List<String> drifted = new ArrayList<>();
+        try (EntityLocks.Held h = locks.exclusive()) {
+            for (Course c : courses) if (!sameStats(getCourseStatistics(c.getCourseId()), recomputeCourseStatistics(c.getCourseId()))) drifted.add(c.getCourseId());
+        }
+        return drifted;
+    }
+
+    private static boolean sameStats(Map<String, Double> a, Map<String, Double> b) {
+        for (Map.Entry<String, Double> e : a.entrySet()) if (Math.abs(e.getValue() - b.get(e.getKey())) > 1e-9) return false;
+        return true;
+    }
+
+    /** The O(students x lessons) computation the aggregates replace; kept as their reference. */
+    private Map<String, Double> recomputeCourseStatistics(String cId) {
         Map<String, Double> stats = new HashMap<>();
         Course course = getCourseById(cId);
         List<Student> students = getEnrolledStudents(cId);
@@ -267,7 +692,20 @@ public class JsonDatabaseManager {
     }
 
     // --- Helpers ---
-    public Student getStudentById(String id) { return (Student) users.stream().filter(u -> u instanceof Student && u.getUserId().equals(id)).findFirst().orElse(null); }
-    public Instructor getInstructorById(String id) { return (Instructor) users.stream().filter(u -> u instanceof Instructor && u.getUserId().equals(id)).findFirst().orElse(null); }
-    public Course getCourseById(String id) { return courses.stream().filter(c -> c.getCourseId().equals(id)).findFirst().orElse(null); }
+    public User getUserById(String id) { return id == null ? null : usersById.get(id); }
+    public Student getStudentById(String id) { User u = id == null ? null : usersById.get(id); return u instanceof Student ? (Student) u : null; }
+    public Instructor getInstructorById(String id) { User u = id == null ? null : usersById.get(id); return u instanceof Instructor ? (Instructor) u : null; }
+    public Course getCourseById(String id) { return id == null ? null : coursesById.get(id); }
+    /** Every student, for tools such as {@link WorkloadSimulator}. */
+    List<Student> getAllStudents() {
+        List<Student> out = new ArrayList<>();
+        try (EntityLocks.Held h = locks.shared()) { for (User u : users) if (u instanceof Student) out.add((Student) u); }
+        return out;
+    }
+
+    private void indexUser(User u) {
+        usersById.putIfAbsent(u.getUserId(), u);
+        if (u.getEmail() != null) usersByEmail.putIfAbsent(foldEmail(u.getEmail()), u);
+    }
+    private static String foldEmail(String email) { return email.toLowerCase(Locale.ROOT); }
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package database;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import models.Course;
+import models.User;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The original layout: the whole user base in users.json and the whole catalog in courses.json.
+ * Both files are rebuilt from {@link RecordImages}, so a commit only encodes the records it
+ * touched and the rest of the model is never read while other writers are changing it.
+ */
+@SuppressWarnings("try") // the capture thread holds each record's lock without naming it
+class JsonFileStorage implements Storage {
+    protected final Gson gson;
+    protected final Path usersFile;
+    protected final Path coursesFile;
+    protected final AtomicCommitter committer;
+    private final EntityLocks locks;
+    private final Supplier<Map<Path, byte[]>> dirtyFiles = this::renderDirty;
+    private final RecordImages userImages = new RecordImages(); // guarded by this, as are the flags
+    private final RecordImages courseImages = new RecordImages();
+    private boolean usersDirty, coursesDirty;
+    private List<User> users;
+    private List<Course> courses;
+
+    /** For reading the files only, or for a subclass that commits its own way. */
+    JsonFileStorage(Gson gson, Path usersFile, Path coursesFile) { this(gson, usersFile, coursesFile, null); }
+
+    /** @param locks the model's locks, held while {@link #ready} captures the loaded records */
+    JsonFileStorage(Gson gson, Path usersFile, Path coursesFile, EntityLocks locks) {
+        this.gson = gson;
+        this.usersFile = usersFile;
+        this.coursesFile = coursesFile;
+        this.committer = new AtomicCommitter(usersFile.resolveSibling("commit.manifest"));
+        this.locks = locks;
+    }
+
+    @Override
+    public void load(List<User> users, List<Course> courses) {
+        this.users = users;
+        this.courses = courses;
+        stream(coursesFile, ModelTypeAdapters.COURSE, courses);
+        stream(usersFile, ModelTypeAdapters.USER, users);
+    }
+
+    /** Decodes a top-level array record by record, without building a tree of the file. */
+    private <T> void stream(Path file, TypeAdapter<T> adapter, List<? super T> into) {
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            ModelTypeAdapters.readArray(reader, adapter, into);
+        } catch (NoSuchFileException e) {
+            System.out.println(file.getFileName() + " not found, creating new.");
+        } catch (IOException e) { e.printStackTrace(); }
+    }
+
+    /**
+     * Reserves a place for every loaded record, then captures their images on a daemon thread,
+     * each under that record's lock. Until it finishes, the files wait on the committer thread.
+     */
+    @Override
+    public void ready() {
+        List<User> loadedUsers = new ArrayList<>(users);
+        List<Course> loadedCourses = new ArrayList<>(courses);
+        synchronized (this) {
+            for (User u : loadedUsers) userImages.reserve(u.getUserId());
+            for (Course c : loadedCourses) courseImages.reserve(c.getCourseId());
+        }
+        Thread t = new Thread(() -> {
+            for (User u : loadedUsers) {
+                try (EntityLocks.Held h = locks.entities(u.getUserId())) {
+                    byte[] image = RecordImages.encode(gson, u, User.class);
+                    synchronized (this) { userImages.fill(u.getUserId(), image); notifyAll(); }
+                }
+            }
+            for (Course c : loadedCourses) {
+                try (EntityLocks.Held h = locks.entities(c.getCourseId())) {
+                    byte[] image = RecordImages.encode(gson, c, Course.class);
+                    synchronized (this) { courseImages.fill(c.getCourseId(), image); notifyAll(); }
+                }
+            }
+        }, "json-record-capture");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Encodes the touched records on the caller, which holds their locks, and swaps them into the
+     * images together so a file never holds half of a change set. The files are rebuilt and made
+     * durable on the committer thread; only {@link #flush} waits for that.
+     */
+    @Override
+    public void commit(ChangeSet changes) {
+        if (changes.isEmpty()) return;
+        Map<String, byte[]> u = new LinkedHashMap<>(), c = new LinkedHashMap<>();
+        for (User user : changes.users) u.put(user.getUserId(), RecordImages.encode(gson, user, User.class));
+        for (Course course : changes.courses) c.put(course.getCourseId(), RecordImages.encode(gson, course, Course.class));
+        synchronized (this) {
+            u.forEach(userImages::put);
+            c.forEach(courseImages::put);
+            for (String id : changes.deletedCourses) courseImages.remove(id);
+            usersDirty |= changes.touchesUsers();
+            coursesDirty |= changes.touchesCourses();
+        }
+        committer.submit(dirtyFiles);
+    }
+
+    /** Runs on the committer thread: the files changed since the last call, from the images. */
+    private Map<Path, byte[]> renderDirty() {
+        List<byte[]> u = null, c = null;
+        synchronized (this) {
+            boolean interrupted = false;
+            while (!userImages.complete() || !courseImages.complete()) {
+                try { wait(); } catch (InterruptedException e) { interrupted = true; }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            if (usersDirty) u = userImages.parts();
+            if (coursesDirty) c = courseImages.parts();
+            usersDirty = coursesDirty = false;
+        }
+        Map<Path, byte[]> files = new LinkedHashMap<>();
+        if (u != null) files.put(usersFile, RecordImages.render(u));
+        if (c != null) files.put(coursesFile, RecordImages.render(c));
+        return files;
+    }
+
+    @Override
+    public void flush() { committer.awaitIdle(); }
+
+    @Override
+    public void close() { committer.close(); }
+
+    protected byte[] toBytes(Object value) { return gson.toJson(value).getBytes(StandardCharsets.UTF_8); }
+
+    /** Reads a top-level JSON array, or returns null if the file is missing or empty. */
+    protected JsonArray readArray(Path file) {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonElement root = JsonParser.parseReader(reader);
+            return root.isJsonArray() ? root.getAsJsonArray() : null;
+        } catch (IOException e) {
+            System.out.println(file.getFileName() + " not found, creating new.");
+            return null;
+        }
+    }
+}
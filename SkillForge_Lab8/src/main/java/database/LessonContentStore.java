@@ -0,0 +1,131 @@
+package database;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Lesson bodies kept out of courses.json: one small {@code <lessonId>.json} file per lesson
+ * holding its content and resources. Bodies are read when a lesson is opened and held in a
+ * bounded LRU cache; a file is only rewritten when its body actually changes.
+ */
+class LessonContentStore {
+    static final class Body {
+        final String content;
+        final List<String> resources;
+
+        Body(String content, List<String> resources) {
+            this.content = content;
+            this.resources = resources == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(resources));
+        }
+    }
+
+    private static final Body EMPTY = new Body(null, null);
+
+    private final Path dir;
+    private final AtomicCommitter committer;
+    private final Map<String, Body> cache; // guarded by this
+
+    LessonContentStore(Path dir, int cacheSize) {
+        this.dir = dir;
+        this.committer = new AtomicCommitter(dir.resolve("commit.manifest"));
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<String, Body> eldest) { return size() > cacheSize; }
+        };
+    }
+
+    /** Returns the lesson's body, reading it from disk on a cache miss; never null. */
+    synchronized Body get(String lessonId) {
+        Body b = cache.get(lessonId);
+        if (b == null) {
+            b = read(lessonId);
+            cache.put(lessonId, b);
+        }
+        return b;
+    }
+
+    /** Whether the lesson has a body file, as opposed to one that was never stored. */
+    boolean has(String lessonId) { return Files.exists(file(lessonId)); }
+
+    /** The lesson's content, without caching it on a miss; for bulk scans such as search indexing. */
+    String peekContent(String lessonId) {
+        Body b;
+        synchronized (this) { b = cache.get(lessonId); }
+        return (b != null ? b : read(lessonId)).content;
+    }
+
+    /** Stores a body and reports whether anything had to be written. */
+    boolean put(String lessonId, String content, List<String> resources) {
+        return putAll(Collections.singletonMap(lessonId, new Body(content, resources))) > 0;
+    }
+
+    /** Writes the bodies that differ from what is stored, in one atomic commit; returns how many. */
+    synchronized int putAll(Map<String, Body> bodies) {
+        Map<Path, byte[]> files = new LinkedHashMap<>();
+        for (Map.Entry<String, Body> e : bodies.entrySet()) {
+            Body old = get(e.getKey()), b = e.getValue();
+            if (Objects.equals(old.content, b.content) && old.resources.equals(b.resources)) continue;
+            files.put(file(e.getKey()), encode(b));
+            cache.put(e.getKey(), b);
+        }
+        if (files.isEmpty()) return 0;
+        try { committer.commitNow(files); }
+        catch (IOException ex) { throw new IllegalStateException("Cannot write lesson content", ex); }
+        return files.size();
+    }
+
+    void close() { committer.close(); }
+
+    synchronized void delete(Collection<String> lessonIds) {
+        for (String id : lessonIds) {
+            cache.remove(id);
+            try { Files.deleteIfExists(file(id)); } catch (IOException e) { e.printStackTrace(); }
+        }
+    }
+
+    private Body read(String lessonId) {
+        try {
+            JsonObject o = JsonParser.parseString(Files.readString(file(lessonId), StandardCharsets.UTF_8)).getAsJsonObject();
+            JsonElement content = o.get("content");
+            List<String> resources = new ArrayList<>();
+            if (o.has("resources")) for (JsonElement r : o.getAsJsonArray("resources")) resources.add(r.getAsString());
+            return new Body(content == null || content.isJsonNull() ? null : content.getAsString(), resources);
+        } catch (NoSuchFileException e) {
+            return EMPTY;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            return EMPTY;
+        }
+    }
+
+    private static byte[] encode(Body b) {
+        JsonObject o = new JsonObject();
+        o.addProperty("content", b.content);
+        JsonArray res = new JsonArray();
+        for (String r : b.resources) res.add(r);
+        o.add("resources", res);
+        return o.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Path file(String lessonId) {
+        // Lesson ids are UUIDs; refuse anything that could escape the store directory
+        if (lessonId.indexOf('/') >= 0 || lessonId.indexOf('\\') >= 0 || lessonId.startsWith(".")) {
+            throw new IllegalArgumentException("Bad lesson id: " + lessonId);
+        }
+        return dir.resolve(lessonId + ".json");
+    }
+}
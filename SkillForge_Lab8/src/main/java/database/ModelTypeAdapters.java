@@ -0,0 +1,306 @@
+package database;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import models.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written Gson adapters for the model classes. They decode each record in one pass straight
+ * into its model object (no reflection, no intermediate Map or JsonElement) and write exactly the
+ * shape the reflective Gson output had, so existing data files load unchanged. Users are
+ * discriminated by their "role" field, which may appear anywhere in the object.
+ */
+final class ModelTypeAdapters {
+    private ModelTypeAdapters() {}
+
+    static final TypeAdapter<Question> QUESTION = new TypeAdapter<>() {
+        @Override public void write(JsonWriter out, Question q) throws IOException {
+            if (q == null) { out.nullValue(); return; }
+            out.beginObject();
+            out.name("questionText").value(q.getQuestionText());
+            out.name("options"); writeStrings(out, q.getOptions());
+            out.name("correctOptionIndex").value(q.getCorrectOptionIndex());
+            out.endObject();
+        }
+        @Override public Question read(JsonReader in) throws IOException {
+            if (skipNull(in)) return null;
+            String text = null; List<String> options = null; int correct = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "questionText": text = nextString(in); break;
+                    case "options": options = readStrings(in); break;
+                    case "correctOptionIndex": correct = in.nextInt(); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Question(text, options != null ? options : new ArrayList<>(), correct);
+        }
+    };
+
+    static final TypeAdapter<Quiz> QUIZ = new TypeAdapter<>() {
+        @Override public void write(JsonWriter out, Quiz q) throws IOException {
+            if (q == null) { out.nullValue(); return; }
+            out.beginObject();
+            out.name("quizId").value(q.getQuizId());
+            out.name("lessonId").value(q.getLessonId());
+            out.name("questions"); writeList(out, q.getQuestions(), QUESTION);
+            out.endObject();
+        }
+        @Override public Quiz read(JsonReader in) throws IOException {
+            if (skipNull(in)) return null;
+            String quizId = null, lessonId = null; List<Question> questions = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "quizId": quizId = nextString(in); break;
+                    case "lessonId": lessonId = nextString(in); break;
+                    case "questions": questions = readList(in, QUESTION); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Quiz(quizId, lessonId, questions != null ? questions : new ArrayList<>());
+        }
+    };
+
+    static final TypeAdapter<Lesson> LESSON = new TypeAdapter<>() {
+        @Override public void write(JsonWriter out, Lesson l) throws IOException {
+            if (l == null) { out.nullValue(); return; }
+            out.beginObject();
+            out.name("lessonId").value(l.getLessonId());
+            out.name("title").value(l.getTitle());
+            out.name("content").value(l.getContent());
+            out.name("resources"); writeStrings(out, l.getResources());
+            out.name("quiz"); QUIZ.write(out, l.getQuiz());
+            out.endObject();
+        }
+        @Override public Lesson read(JsonReader in) throws IOException {
+            if (skipNull(in)) return null;
+            String id = null, title = null, content = null; List<String> resources = null; Quiz quiz = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "lessonId": id = nextString(in); break;
+                    case "title": title = nextString(in); break;
+                    case "content": content = nextString(in); break;
+                    case "resources": resources = readStrings(in); break;
+                    case "quiz": quiz = QUIZ.read(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Lesson(id, title, content, resources != null ? resources : new ArrayList<>(), quiz);
+        }
+    };
+
+    static final TypeAdapter<Course> COURSE = new TypeAdapter<>() {
+        @Override public void write(JsonWriter out, Course c) throws IOException {
+            if (c == null) { out.nullValue(); return; }
+            out.beginObject();
+            out.name("courseId").value(c.getCourseId());
+            out.name("title").value(c.getTitle());
+            out.name("description").value(c.getDescription());
+            out.name("instructorId").value(c.getInstructorId());
+            out.name("lessons"); writeList(out, c.getLessons(), LESSON);
+            out.name("students"); writeStrings(out, c.getStudents());
+            out.name("status").value(c.getStatus() == null ? null : c.getStatus().name());
+            out.endObject();
+        }
+        @Override public Course read(JsonReader in) throws IOException {
+            if (skipNull(in)) return null;
+            String id = null, title = null, desc = null, instructorId = null;
+            List<Lesson> lessons = null; List<String> students = null; CourseStatus status = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "courseId": id = nextString(in); break;
+                    case "title": title = nextString(in); break;
+                    case "description": desc = nextString(in); break;
+                    case "instructorId": instructorId = nextString(in); break;
+                    case "lessons": lessons = readList(in, LESSON); break;
+                    case "students": students = readStrings(in); break;
+                    case "status": status = parseStatus(nextString(in)); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Course(id, title, desc, instructorId, lessons != null ? lessons : new ArrayList<>(),
+                    students != null ? students : new ArrayList<>(), status);
+        }
+    };
+
+    static final TypeAdapter<Certificate> CERTIFICATE = new TypeAdapter<>() {
+        @Override public void write(JsonWriter out, Certificate c) throws IOException {
+            if (c == null) { out.nullValue(); return; }
+            out.beginObject();
+            out.name("certificateId").value(c.getCertificateId());
+            out.name("studentId").value(c.getStudentId());
+            out.name("studentName").value(c.getStudentName());
+            out.name("courseId").value(c.getCourseId());
+            out.name("courseTitle").value(c.getCourseTitle());
+            out.name("issueDate").value(c.getIssueDate());
+            out.endObject();
+        }
+        @Override public Certificate read(JsonReader in) throws IOException {
+            if (skipNull(in)) return null;
+            String id = null, studentId = null, studentName = null, courseId = null, courseTitle = null, issueDate = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "certificateId": id = nextString(in); break;
+                    case "studentId": studentId = nextString(in); break;
+                    case "studentName": studentName = nextString(in); break;
+                    case "courseId": courseId = nextString(in); break;
+                    case "courseTitle": courseTitle = nextString(in); break;
+                    case "issueDate": issueDate = nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Certificate(id, studentId, studentName, courseId, courseTitle, issueDate);
+        }
+    };
+
+    /** Reads any user record; returns null for an unknown role, as the old loader skipped those. */
+    static final TypeAdapter<User> USER = new TypeAdapter<>() {
+        @Override public void write(JsonWriter out, User u) throws IOException {
+            if (u == null) { out.nullValue(); return; }
+            out.beginObject();
+            if (u instanceof Student) {
+                Student s = (Student) u;
+                out.name("enrolledCourses"); writeStrings(out, s.getEnrolledCourses());
+                out.name("quizScores"); writeScores(out, s.getQuizScores());
+                out.name("certificates"); writeList(out, s.getCertificates(), CERTIFICATE);
+            } else if (u instanceof Instructor) {
+                out.name("createdCourses"); writeStrings(out, ((Instructor) u).getCreatedCourses());
+            }
+            out.name("userId").value(u.getUserId());
+            out.name("username").value(u.getUsername());
+            out.name("email").value(u.getEmail());
+            out.name("passwordHash").value(u.getPasswordHash());
+            out.name("role").value(u.getRole());
+            out.endObject();
+        }
+        @Override public User read(JsonReader in) throws IOException {
+            if (skipNull(in)) return null;
+            String id = null, username = null, email = null, hash = null, role = null;
+            List<String> enrolled = null, created = null; QuizScores scores = null; List<Certificate> certs = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "userId": id = nextString(in); break;
+                    case "username": username = nextString(in); break;
+                    case "email": email = nextString(in); break;
+                    case "passwordHash": hash = nextString(in); break;
+                    case "role": role = nextString(in); break;
+                    case "enrolledCourses": enrolled = readStrings(in); break;
+                    case "quizScores": scores = readScores(in); break;
+                    case "certificates": certs = readList(in, CERTIFICATE); break;
+                    case "createdCourses": created = readStrings(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            if ("Student".equals(role)) return new Student(id, username, email, hash, role, enrolled != null ? enrolled : new ArrayList<>(), scores, certs);
+            if ("Instructor".equals(role)) return new Instructor(id, username, email, hash, role, created != null ? created : new ArrayList<>());
+            if ("Admin".equals(role)) return new Admin(id, username, email, hash, role);
+            return null;
+        }
+    };
+
+    static GsonBuilder register(GsonBuilder builder) {
+        return builder.registerTypeHierarchyAdapter(User.class, USER)
+                .registerTypeAdapter(Course.class, COURSE)
+                .registerTypeAdapter(Lesson.class, LESSON)
+                .registerTypeAdapter(Quiz.class, QUIZ)
+                .registerTypeAdapter(Question.class, QUESTION)
+                .registerTypeAdapter(Certificate.class, CERTIFICATE);
+    }
+
+    /** Streams a top-level array of records, skipping the ones the adapter rejects. */
+    static <T> void readArray(JsonReader in, TypeAdapter<T> adapter, List<? super T> into) throws IOException {
+        if (in.peek() == JsonToken.END_DOCUMENT || skipNull(in)) return;
+        in.beginArray();
+        while (in.hasNext()) {
+            T v = adapter.read(in);
+            if (v != null) into.add(v);
+        }
+        in.endArray();
+    }
+
+    // --- Helpers ---
+    private static boolean skipNull(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.NULL) return false;
+        in.nextNull();
+        return true;
+    }
+
+    private static String nextString(JsonReader in) throws IOException { return skipNull(in) ? null : in.nextString(); }
+
+    private static CourseStatus parseStatus(String s) {
+        if (s == null) return null;
+        try { return CourseStatus.valueOf(s); } catch (IllegalArgumentException e) { return null; }
+    }
+
+    private static List<String> readStrings(JsonReader in) throws IOException {
+        if (skipNull(in)) return null;
+        List<String> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) list.add(nextString(in));
+        in.endArray();
+        return list;
+    }
+
+    private static void writeStrings(JsonWriter out, List<String> list) throws IOException {
+        if (list == null) { out.nullValue(); return; }
+        out.beginArray();
+        for (String s : list) out.value(s);
+        out.endArray();
+    }
+
+    private static <T> List<T> readList(JsonReader in, TypeAdapter<T> adapter) throws IOException {
+        if (skipNull(in)) return null;
+        List<T> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) list.add(adapter.read(in));
+        in.endArray();
+        return list;
+    }
+
+    private static <T> void writeList(JsonWriter out, List<T> list, TypeAdapter<T> adapter) throws IOException {
+        if (list == null) { out.nullValue(); return; }
+        out.beginArray();
+        for (T v : list) adapter.write(out, v);
+        out.endArray();
+    }
+
+    private static QuizScores readScores(JsonReader in) throws IOException {
+        if (skipNull(in)) return null;
+        QuizScores scores = new QuizScores();
+        in.beginObject();
+        while (in.hasNext()) {
+            String lessonId = in.nextName();
+            if (skipNull(in)) continue;
+            scores.put(lessonId, in.nextInt());
+        }
+        in.endObject();
+        return scores;
+    }
+
+    private static void writeScores(JsonWriter out, Map<String, Integer> scores) throws IOException {
+        if (scores == null) { out.nullValue(); return; }
+        out.beginObject();
+        for (Map.Entry<String, Integer> e : scores.entrySet()) out.name(e.getKey()).value(e.getValue());
+        out.endObject();
+    }
+}
@@ -0,0 +1,132 @@
+package database;
+
+import models.Course;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Platform-wide analytics for admins: completion rate, average best score, enrollment and
+ * certificates per course and per instructor. Figures use the same definitions as
+ * {@link JsonDatabaseManager#getCourseStatistics} and come from the same incrementally kept
+ * aggregates, so building a report is linear in the number of courses rather than in
+ * enrollments x lessons. Built by {@link JsonDatabaseManager#getPlatformReport()}; immutable.
+ */
+public final class PlatformReport {
+
+    /** Figures shared by course and instructor rows. */
+    public static class Row {
+        final String id;
+        final String name;
+        final int courses;
+        final int enrolled;
+        final long passed;
+        final long possible;
+        final long scoreSum;
+        final int certificates;
+
+        Row(String id, String name, int courses, int enrolled, long passed, long possible, long scoreSum, int certificates) {
+            this.id = id; this.name = name; this.courses = courses; this.enrolled = enrolled;
+            this.passed = passed; this.possible = possible; this.scoreSum = scoreSum; this.certificates = certificates;
+        }
+
+        public String getId() { return id; }
+        public String getName() { return name; }
+        public int getCourseCount() { return courses; }
+        public int getEnrolled() { return enrolled; }
+        public int getCertificates() { return certificates; }
+        /** Passed lessons over enrolled students x lessons, as a percentage. */
+        public double getCompletionRate() { return possible > 0 ? (double) passed / possible * 100 : 0.0; }
+        /** Mean best score over passed lessons. */
+        public double getAverageScore() { return passed > 0 ? (double) scoreSum / passed : 0.0; }
+    }
+
+    /** A course row; {@link #getInstructorId()} links it to its instructor row. */
+    public static final class CourseRow extends Row {
+        final String instructorId;
+
+        CourseRow(String id, String name, String instructorId, int enrolled, long passed, long possible, long scoreSum, int certificates) {
+            super(id, name, 1, enrolled, passed, possible, scoreSum, certificates);
+            this.instructorId = instructorId;
+        }
+
+        public String getInstructorId() { return instructorId; }
+    }
+
+    /** An immutable copy of one course's identity and counters, taken while the model is briefly locked. */
+    static final class CourseView {
+        final String id, title, instructorId;
+        final int lessons, enrolled, certificates;
+        final long passed, scoreSum;
+
+        CourseView(Course c, CourseStats.Totals t) {
+            id = c.getCourseId(); title = c.getTitle(); instructorId = c.getInstructorId(); lessons = c.getLessons().size();
+            enrolled = t.enrolled.get(); passed = t.passed.get(); scoreSum = t.scoreSum.get(); certificates = t.certificates.get();
+        }
+    }
+
+    private final List<CourseRow> courses;
+    private final List<Row> instructors;
+    private final long elapsedMillis;
+
+    private PlatformReport(List<CourseRow> courses, List<Row> instructors, long elapsedMillis) {
+        this.courses = Collections.unmodifiableList(courses);
+        this.instructors = Collections.unmodifiableList(instructors);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<CourseRow> getCourses() { return courses; }
+    public List<Row> getInstructors() { return instructors; }
+    /** Time spent computing the report from its snapshot. */
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    /** Turns the snapshot into course rows and folds those into instructor rows, both in parallel. */
+    static PlatformReport build(List<CourseView> snapshot, Function<String, String> instructorNames) {
+        long start = System.nanoTime();
+        List<CourseRow> rows = snapshot.parallelStream()
+                .map(c -> new CourseRow(c.id, c.title, c.instructorId, c.enrolled, c.passed, (long) c.enrolled * c.lessons, c.scoreSum, c.certificates))
+                .collect(Collectors.toList());
+
+        Map<String, List<CourseRow>> byInstructor = rows.stream()
+                .collect(Collectors.groupingBy(r -> String.valueOf(r.instructorId), LinkedHashMap::new, Collectors.toList()));
+        List<Row> instructors = byInstructor.entrySet().parallelStream().map(e -> {
+            int enrolled = 0, certs = 0; long passed = 0, possible = 0, sum = 0;
+            for (CourseRow r : e.getValue()) { enrolled += r.enrolled; certs += r.certificates; passed += r.passed; possible += r.possible; sum += r.scoreSum; }
+            String name = instructorNames.apply(e.getValue().get(0).instructorId);
+            return new Row(e.getKey(), name != null ? name : "(unknown)", e.getValue().size(), enrolled, passed, possible, sum, certs);
+        }).collect(Collectors.toList());
+        return new PlatformReport(rows, instructors, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // --- Export ---
+    /** Writes both tables as one CSV file, courses first. */
+    public void exportCsv(Path file) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("type,id,name,instructorId,courses,enrolled,completionRate,averageScore,certificates\n");
+        for (CourseRow r : courses) appendCsv(sb, "course", r, r.instructorId);
+        for (Row r : instructors) appendCsv(sb, "instructor", r, r.id);
+        Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendCsv(StringBuilder sb, String type, Row r, String instructorId) {
+        sb.append(type).append(',').append(csv(r.id)).append(',').append(csv(r.name)).append(',').append(csv(instructorId)).append(',')
+          .append(r.courses).append(',').append(r.enrolled).append(',')
+          .append(String.format(Locale.ROOT, "%.2f,%.2f", r.getCompletionRate(), r.getAverageScore())).append(',')
+          .append(r.certificates).append('\n');
+    }
+
+    private static String csv(String s) {
+        if (s == null) return "";
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,157 @@
+package database;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import models.Question;
+import models.Quiz;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Grades quiz answers against answer keys compiled once per {@link Quiz} into an {@code int[]} of
+ * correct option indexes, so grading is a tight loop over primitive arrays. Batches are graded
+ * in parallel; {@link JsonDatabaseManager#gradeSubmissions} resolves the quizzes and applies the
+ * scores. Submissions can be read from CSV or JSON Lines files (see {@link #read(Path)}).
+ */
+public final class QuizGrader {
+
+    /** One student's answers to one lesson's quiz: the chosen option per question, -1 if unanswered. */
+    public static final class Submission {
+        final String studentId;
+        final String courseId;
+        final String lessonId;
+        final int[] answers;
+
+        public Submission(String studentId, String courseId, String lessonId, int[] answers) {
+            this.studentId = studentId; this.courseId = courseId; this.lessonId = lessonId; this.answers = answers;
+        }
+
+        public String getStudentId() { return studentId; }
+        public String getCourseId() { return courseId; }
+        public String getLessonId() { return lessonId; }
+        public int[] getAnswers() { return answers; }
+    }
+
+    /** The outcome for one submission: a score, or the reason it could not be graded. */
+    public static final class Result {
+        final Submission submission;
+        final int score;
+        final String error;
+
+        private Result(Submission submission, int score, String error) { this.submission = submission; this.score = score; this.error = error; }
+
+        static Result graded(Submission s, int score) { return new Result(s, score, null); }
+        static Result rejected(Submission s, String error) { return new Result(s, -1, error); }
+
+        public Submission getSubmission() { return submission; }
+        /** Percentage score, or -1 if the submission was rejected. */
+        public int getScore() { return score; }
+        public String getError() { return error; }
+        public boolean isGraded() { return error == null; }
+    }
+
+    /** A quiz compiled to its correct option per question. */
+    static final class AnswerKey {
+        final int[] correct;
+
+        AnswerKey(Quiz quiz) {
+            List<Question> questions = quiz.getQuestions() == null ? Collections.emptyList() : quiz.getQuestions();
+            correct = new int[questions.size()];
+            for (int i = 0; i < correct.length; i++) correct[i] = questions.get(i).getCorrectOptionIndex();
+        }
+
+        int grade(int[] answers) {
+            int right = 0;
+            for (int i = 0; i < correct.length; i++) if (answers[i] == correct[i]) right++;
+            // Same rounding the quiz dialog always used, so stored scores stay comparable
+            return correct.length == 0 ? 0 : (int) (((double) right / correct.length) * 100);
+        }
+    }
+
+    // Keyed by identity: editing a lesson installs a new Quiz, which gets a fresh key
+    private final Map<Quiz, AnswerKey> keys = Collections.synchronizedMap(new WeakHashMap<>());
+
+    AnswerKey keyFor(Quiz quiz) { return keys.computeIfAbsent(quiz, AnswerKey::new); }
+
+    /** Grades one set of answers; answers must have one entry per question. */
+    public int grade(Quiz quiz, int[] answers) {
+        AnswerKey key = keyFor(quiz);
+        if (answers.length != key.correct.length) throw new IllegalArgumentException("Expected " + key.correct.length + " answers, got " + answers.length);
+        return key.grade(answers);
+    }
+
+    /** Grades submissions in parallel; {@code quizOf} returns null for a submission that names no quiz. Results keep input order. */
+    List<Result> gradeAll(List<Submission> submissions, Function<Submission, Quiz> quizOf) {
+        return submissions.parallelStream().map(s -> {
+            Quiz quiz = quizOf.apply(s);
+            if (quiz == null) return Result.rejected(s, "No quiz for lesson " + s.lessonId + " in course " + s.courseId);
+            AnswerKey key = keyFor(quiz);
+            if (s.answers.length != key.correct.length) return Result.rejected(s, "Expected " + key.correct.length + " answers, got " + s.answers.length);
+            return Result.graded(s, key.grade(s.answers));
+        }).collect(Collectors.toList());
+    }
+
+    // --- Batch Files ---
+
+    /** Shape of one JSON Lines record. */
+    private static final class Line {
+        String studentId;
+        String courseId;
+        String lessonId;
+        int[] answers;
+    }
+
+    /**
+     * Reads submissions from {@code file}. Files ending in {@code .jsonl} or {@code .json} hold one
+     * object per line: {@code {"studentId":..,"courseId":..,"lessonId":..,"answers":[0,2,1]}}.
+     * Anything else is CSV: {@code studentId,courseId,lessonId,0;2;1}, with an optional header row.
+     * Blank lines are skipped.
+     */
+    public static List<Submission> read(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean json = name.endsWith(".jsonl") || name.endsWith(".json");
+        Gson gson = new Gson();
+        List<Submission> out = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            int n = 0;
+            for (String line; (line = in.readLine()) != null; ) {
+                n++;
+                line = line.trim();
+                if (line.isEmpty() || (!json && n == 1 && line.startsWith("studentId"))) continue;
+                try {
+                    out.add(json ? fromJson(gson, line) : fromCsv(line));
+                } catch (RuntimeException e) {
+                    throw new IOException(file.getFileName() + " line " + n + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return out;
+    }
+
+    private static Submission fromJson(Gson gson, String line) {
+        Line l = gson.fromJson(line, Line.class);
+        if (l == null || l.studentId == null || l.courseId == null || l.lessonId == null || l.answers == null) throw new JsonParseException("missing field");
+        return new Submission(l.studentId, l.courseId, l.lessonId, l.answers);
+    }
+
+    private static Submission fromCsv(String line) {
+        String[] f = line.split(",", -1);
+        if (f.length != 4) throw new IllegalArgumentException("expected 4 fields, got " + f.length);
+        String[] a = f[3].trim().isEmpty() ? new String[0] : f[3].trim().split(";");
+        int[] answers = new int[a.length];
+        for (int i = 0; i < a.length; i++) answers[i] = Integer.parseInt(a[i].trim());
+        return new Submission(f[0].trim(), f[1].trim(), f[2].trim(), answers);
+    }
+}
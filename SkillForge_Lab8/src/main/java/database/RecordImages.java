@@ -0,0 +1,78 @@
+package database;
+
+import com.google.gson.Gson;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The serialized form of every record in one data file, in file order. A commit re-encodes only
+ * the records it touched, while the writer still holds their locks, so each image is a state
+ * the record really had; the file is then rebuilt from the images on the committer thread
+ * without reading the live model or taking any lock. Costs about the file's size in memory.
+ * <p>
+ * Records loaded from disk start as placeholders that keep their position and are captured in
+ * the background (see {@link #fill}); the file can only be rebuilt once none are left. Not
+ * thread-safe: the owning storage guards it with its monitor.
+ */
+final class RecordImages {
+    private static final byte[] EMPTY = "[]".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] OPEN = "[\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SEPARATOR = ",\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CLOSE = "\n]".getBytes(StandardCharsets.UTF_8);
+
+    private final Map<String, byte[]> images = new LinkedHashMap<>(); // null until captured
+    private int missing;
+
+    /** Keeps a position for a loaded record whose image has not been captured yet. */
+    void reserve(String id) {
+        if (!images.containsKey(id)) { images.put(id, null); missing++; }
+    }
+
+    /** The record's state as of a commit; a new record goes last. */
+    void put(String id, byte[] image) {
+        if (images.containsKey(id) && images.get(id) == null) missing--;
+        images.put(id, image);
+    }
+
+    /** Captures a loaded record unless a commit got there first or it has been removed. */
+    void fill(String id, byte[] image) {
+        if (images.containsKey(id) && images.get(id) == null) { images.put(id, image); missing--; }
+    }
+
+    /** Returns true if the record was in this file. */
+    boolean remove(String id) {
+        if (!images.containsKey(id)) return false;
+        if (images.remove(id) == null) missing--;
+        return true;
+    }
+
+    boolean complete() { return missing == 0; }
+
+    /** The images in file order, for {@link #render} once the owner's monitor is released. */
+    List<byte[]> parts() { return new ArrayList<>(images.values()); }
+
+    /** One record as the pretty-printing {@code gson} writes it inside a top-level array. */
+    static byte[] encode(Gson gson, Object record, Class<?> type) {
+        return ("  " + gson.toJson(record, type).replace("\n", "\n  ")).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** The array file {@code gson.toJson(records)} would write, byte for byte. */
+    static byte[] render(List<byte[]> parts) {
+        if (parts.isEmpty()) return EMPTY.clone();
+        int size = OPEN.length + CLOSE.length + SEPARATOR.length * (parts.size() - 1);
+        for (byte[] p : parts) size += p.length;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        out.writeBytes(OPEN);
+        for (int i = 0; i < parts.size(); i++) {
+            if (i > 0) out.writeBytes(SEPARATOR);
+            out.writeBytes(parts.get(i));
+        }
+        out.writeBytes(CLOSE);
+        return out.toByteArray();
+    }
+}
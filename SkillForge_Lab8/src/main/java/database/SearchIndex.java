@@ -0,0 +1,349 @@
+package database;
+
+import models.Course;
+import models.CourseStatus;
+import models.Lesson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory inverted index for course search. Each course is one document built from parts: the
+ * course's own title and description, and each lesson's title and content. Every part keeps the
+ * weighted terms it contributed, so replacing or removing a part only touches that part's terms.
+ * Terms live in a sorted dictionary, which makes prefix lookups a sub-map range; postings map a
+ * dense document number to its summed weight.
+ * <p>
+ * A query matches courses containing every query word, where the last word may be a prefix (for
+ * search-as-you-type). Exact word matches score double; results are the top K by score.
+ * Words are evaluated rarest first, so a multi-word query costs about as much as its most
+ * selective word.
+ */
+class SearchIndex {
+    static final int TITLE = 8, LESSON_TITLE = 4, DESCRIPTION = 2, CONTENT = 1;
+    /**
+     * A prefix expands to at most this many terms, stopping early once they cover
+     * {@link #MAX_POSTINGS} postings: one- and two-letter prefixes then match a sample of the
+     * catalog rather than walking all of it, which keeps search-as-you-type fast.
+     */
+    static final int MAX_EXPANSIONS = 256, MAX_POSTINGS = 200_000;
+    private static final String COURSE_PART = "";
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, Integer> docOf = new HashMap<>();
+    private final List<Doc> docs = new ArrayList<>();
+    private final List<Integer> freeDocs = new ArrayList<>();
+
+    /** One indexed course: its parts' terms, keyed by lesson id ({@link #COURSE_PART} for the course itself). */
+    private static final class Doc {
+        final Course course;
+        final Map<String, Map<String, Integer>> parts = new HashMap<>();
+        Doc(Course course) { this.course = course; }
+    }
+
+    // --- Updates ---
+    void clear() {
+        lock.writeLock().lock();
+        try { terms.clear(); docOf.clear(); docs.clear(); freeDocs.clear(); }
+        finally { lock.writeLock().unlock(); }
+    }
+
+    /** Indexes the course's title and description and its lessons' titles; lesson content comes via {@link #lessonChanged}. */
+    void courseAdded(Course c) {
+        lock.writeLock().lock();
+        try {
+            int d = doc(c);
+            setPart(d, COURSE_PART, courseTerms(c));
+            for (Lesson l : c.getLessons()) setPart(d, l.getLessonId(), lessonTerms(l.getTitle(), null));
+        } finally { lock.writeLock().unlock(); }
+    }
+
+    void courseChanged(Course c) {
+        lock.writeLock().lock();
+        try {
+            Integer d = docOf.get(c.getCourseId());
+            if (d != null) setPart(d, COURSE_PART, courseTerms(c));
+        } finally { lock.writeLock().unlock(); }
+    }
+
+    void courseRemoved(String courseId) {
+        lock.writeLock().lock();
+        try {
+            Integer d = docOf.remove(courseId);
+            if (d == null) return;
+            for (String part : new ArrayList<>(docs.get(d).parts.keySet())) setPart(d, part, null);
+            docs.set(d, null);
+            freeDocs.add(d);
+        } finally { lock.writeLock().unlock(); }
+    }
+
+    /** (Re)indexes one lesson's title and content. */
+    void lessonChanged(String courseId, String lessonId, String title, String content) {
+        lock.writeLock().lock();
+        try {
+            Integer d = docOf.get(courseId);
+            if (d != null) setPart(d, lessonId, lessonTerms(title, content));
+        } finally { lock.writeLock().unlock(); }
+    }
+
+    void lessonRemoved(String courseId, String lessonId) {
+        lock.writeLock().lock();
+        try {
+            Integer d = docOf.get(courseId);
+            if (d != null) setPart(d, lessonId, null);
+        } finally { lock.writeLock().unlock(); }
+    }
+
+    private int doc(Course c) {
+        Integer d = docOf.get(c.getCourseId());
+        if (d != null) return d;
+        if (freeDocs.isEmpty()) { d = docs.size(); docs.add(null); }
+        else d = freeDocs.remove(freeDocs.size() - 1);
+        docs.set(d, new Doc(c));
+        docOf.put(c.getCourseId(), d);
+        return d;
+    }
+
+    /** Replaces one part of a document; {@code null} removes it. */
+    private void setPart(int d, String part, Map<String, Integer> now) {
+        Doc doc = docs.get(d);
+        Map<String, Integer> before = now == null ? doc.parts.remove(part) : doc.parts.put(part, now);
+        if (before != null) for (Map.Entry<String, Integer> e : before.entrySet()) {
+            Postings p = terms.get(e.getKey());
+            if (p != null && p.add(d, -e.getValue()) && p.size() == 0) terms.remove(e.getKey());
+        }
+        if (now != null) for (Map.Entry<String, Integer> e : now.entrySet()) terms.computeIfAbsent(e.getKey(), k -> new Postings()).add(d, e.getValue());
+    }
+
+    private static Map<String, Integer> courseTerms(Course c) {
+        Map<String, Integer> out = new HashMap<>();
+        addTerms(out, c.getTitle(), TITLE);
+        addTerms(out, c.getDescription(), DESCRIPTION);
+        return out;
+    }
+
+    private static Map<String, Integer> lessonTerms(String title, String content) {
+        Map<String, Integer> out = new HashMap<>();
+        addTerms(out, title, LESSON_TITLE);
+        addTerms(out, content, CONTENT);
+        return out;
+    }
+
+    /** Each distinct word counts once per field, at the field's weight. */
+    private static void addTerms(Map<String, Integer> out, String text, int weight) {
+        for (String t : new HashSet<>(tokens(text))) out.merge(t, weight, Integer::sum);
+    }
+
+    /** Lower-cased runs of letters and digits. */
+    static List<String> tokens(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null) return out;
+        String s = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= s.length(); i++) {
+            boolean word = i < s.length() && Character.isLetterOrDigit(s.charAt(i));
+            if (word && start < 0) start = i;
+            else if (!word && start >= 0) { out.add(s.substring(start, i)); start = -1; }
+        }
+        return out;
+    }
+
+    // --- Queries ---
+
+    /**
+     * Top {@code limit} courses matching every word of {@code query} and passing {@code filter},
+     * best first; {@code status} and {@code filter} null mean any. The filter runs before the
+     * limit, so courses it rejects never take a place in the page.
+     */
+    List<Course> search(String query, CourseStatus status, Predicate<Course> filter, int limit) {
+        List<String> words = tokens(query);
+        if (words.isEmpty() || limit <= 0) return new ArrayList<>();
+        boolean prefixLast = Character.isLetterOrDigit(query.charAt(query.length() - 1));
+        lock.readLock().lock();
+        try {
+            // Rarest word first: it fixes the candidates, and the other words only have to confirm them
+            List<Word> plan = new ArrayList<>();
+            for (int w = 0; w < words.size(); w++) plan.add(new Word(words.get(w), w == words.size() - 1 && prefixLast ? prefixRange(words.get(w)) : exact(words.get(w))));
+            plan.sort((a, b) -> Long.compare(a.postings, b.postings));
+            if (plan.get(0).terms.isEmpty()) return new ArrayList<>();
+
+            int[] score = new int[docs.size()];
+            int[] candidates = new int[16];
+            int n = 0;
+            Word first = plan.get(0);
+            for (int t = 0; t < first.terms.size(); t++) {
+                Postings p = first.terms.get(t);
+                for (int i = 0; i < p.keys.length; i++) {
+                    int d = p.keys[i] - 1;
+                    if (d < 0 || score[d] != 0) continue;
+                    if (n == candidates.length) candidates = Arrays.copyOf(candidates, n * 2);
+                    candidates[n++] = d;
+                    score[d] = p.vals[i] * first.boost(t);
+                }
+            }
+            for (int w = 1; w < plan.size() && n > 0; w++) n = confirm(plan.get(w), candidates, n, score);
+
+            // Bounded min-heap of the best `limit` so far; most candidates lose to its root without a push
+            int[] heap = new int[Math.min(limit, n)];
+            int size = 0;
+            for (int i = 0; i < n; i++) {
+                int d = candidates[i];
+                if (size == heap.length && !better(d, heap[0], score)) continue;
+                Doc doc = docs.get(d);
+                if (doc == null || (status != null && doc.course.getStatus() != status)) continue;
+                if (filter != null && !filter.test(doc.course)) continue;
+                if (size < heap.length) siftUp(heap, size++, d, score);
+                else siftDown(heap, size, d, score);
+            }
+            Course[] out = new Course[size];
+            while (size > 0) {
+                out[size - 1] = docs.get(heap[0]).course;
+                siftDown(heap, --size, heap[size], score);
+            }
+            return new ArrayList<>(Arrays.asList(out));
+        } finally { lock.readLock().unlock(); }
+    }
+
+    /** Higher score first, then the older document, so equal scores list in a stable order. */
+    private static boolean better(int a, int b, int[] score) { return score[a] != score[b] ? score[a] > score[b] : a < b; }
+
+    private static void siftUp(int[] heap, int i, int d, int[] score) {
+        while (i > 0 && better(heap[(i - 1) / 2], d, score)) { heap[i] = heap[(i - 1) / 2]; i = (i - 1) / 2; }
+        heap[i] = d;
+    }
+
+    /** Puts {@code d} at the root of a heap of {@code size} entries and restores the order. */
+    private static void siftDown(int[] heap, int size, int d, int[] score) {
+        int i = 0;
+        for (int c; (c = 2 * i + 1) < size; i = c) {
+            if (c + 1 < size && better(heap[c], heap[c + 1], score)) c++;
+            if (!better(d, heap[c], score)) break;
+            heap[i] = heap[c];
+        }
+        if (size > 0) heap[i] = d;
+    }
+
+    /**
+     * Keeps the candidates that also contain {@code word}, adding its weight; returns how many are left.
+     * Probes each candidate when that is cheaper than walking the word's postings.
+     */
+    private static int confirm(Word word, int[] candidates, int n, int[] score) {
+        int[] hit = new int[score.length];
+        if ((long) n * word.terms.size() < word.postings) {
+            for (int i = 0; i < n; i++) {
+                int d = candidates[i];
+                for (int t = 0; t < word.terms.size() && hit[d] == 0; t++) hit[d] = word.terms.get(t).get(d) * word.boost(t);
+            }
+        } else {
+            for (int t = 0; t < word.terms.size(); t++) {
+                Postings p = word.terms.get(t);
+                for (int i = 0; i < p.keys.length; i++) {
+                    int d = p.keys[i] - 1;
+                    if (d >= 0 && hit[d] == 0 && score[d] != 0) hit[d] = p.vals[i] * word.boost(t);
+                }
+            }
+        }
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            int d = candidates[i];
+            if (hit[d] == 0) { score[d] = 0; continue; }
+            score[d] += hit[d];
+            candidates[kept++] = d;
+        }
+        return kept;
+    }
+
+    /** One query word: the terms it matches, in dictionary order (so an exact match comes first and scores double). */
+    private static final class Word {
+        final List<Postings> terms = new ArrayList<>();
+        final boolean exactFirst;
+        long postings;
+
+        Word(String word, NavigableMap<String, Postings> matches) {
+            exactFirst = !matches.isEmpty() && matches.firstKey().length() == word.length();
+            for (Postings p : matches.values()) {
+                if (terms.size() == MAX_EXPANSIONS || postings >= MAX_POSTINGS) break;
+                terms.add(p);
+                postings += p.size();
+            }
+        }
+
+        int boost(int term) { return term == 0 && exactFirst ? 2 : 1; }
+    }
+
+    private NavigableMap<String, Postings> exact(String word) {
+        TreeMap<String, Postings> out = new TreeMap<>();
+        Postings p = terms.get(word);
+        if (p != null) out.put(word, p);
+        return out;
+    }
+
+    private NavigableMap<String, Postings> prefixRange(String prefix) { return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false); }
+
+    /** Number of distinct terms; for diagnostics. */
+    int termCount() {
+        lock.readLock().lock();
+        try { return terms.size(); } finally { lock.readLock().unlock(); }
+    }
+
+    /** Document number -> summed weight, open addressing over {@code doc + 1} so that 0 marks an empty slot. */
+    private static final class Postings {
+        int[] keys = new int[4];
+        int[] vals = new int[4];
+        private int size;
+
+        int size() { return size; }
+
+        /** The document's weight, 0 if absent. */
+        int get(int doc) { int i = find(doc); return keys[i] == 0 ? 0 : vals[i]; }
+
+        /** Adds {@code delta} to the document's weight, dropping it at zero; true if the document was present or added. */
+        boolean add(int doc, int delta) {
+            int i = find(doc);
+            if (keys[i] == 0) {
+                if (delta <= 0) return false;
+                keys[i] = doc + 1; vals[i] = delta;
+                if (++size * 4 > keys.length * 3) grow();
+                return true;
+            }
+            vals[i] += delta;
+            if (vals[i] <= 0) remove(i);
+            return true;
+        }
+
+        private void remove(int i) {
+            keys[i] = 0; vals[i] = 0;
+            size--;
+            int mask = keys.length - 1;
+            for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+                int home = hash(keys[j] - 1) & mask;
+                if (((j - home) & mask) >= ((j - i) & mask)) { keys[i] = keys[j]; vals[i] = vals[j]; keys[j] = 0; vals[j] = 0; i = j; }
+            }
+        }
+
+        private int find(int doc) {
+            int mask = keys.length - 1;
+            int i = hash(doc) & mask;
+            while (keys[i] != 0 && keys[i] != doc + 1) i = (i + 1) & mask;
+            return i;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys, oldVals = vals;
+            keys = new int[oldKeys.length * 2]; vals = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) if (oldKeys[i] != 0) { int j = find(oldKeys[i] - 1); keys[j] = oldKeys[i]; vals[j] = oldVals[i]; }
+        }
+
+        private static int hash(int v) { return v * 0x9E3779B9 >>> 7 ^ v; }
+    }
+}
@@ -0,0 +1,255 @@
+package database;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import models.Course;
+import models.User;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Splits users and courses across shard files ({@code users-<n>.json}, {@code courses-<n>.json})
+ * by a hash of their id, so a commit only rewrites the shards holding the records it touched.
+ * Shards are decoded in parallel at startup.
+ * <p>
+ * The shard count is fixed with {@code -Dskillforge.shards}; otherwise it is picked at startup so
+ * each shard holds about {@value #TARGET_SHARD_SIZE} records, which keeps the cost of a single
+ * change flat as the data grows. When the count changes every record is re-homed once. A
+ * missing shard directory is seeded from users.json/courses.json.
+ * <p>
+ * Shards are rebuilt from {@link RecordImages}, as json storage rebuilds its files: a commit
+ * encodes only its own records under the locks the writer already holds, marks their shards
+ * dirty and returns, and the committer thread writes the dirty shards. Writers on different
+ * records never wait for each other or for the disk.
+ */
+@SuppressWarnings("try") // the capture thread holds each record's lock without naming it
+class ShardedStorage implements Storage {
+    private static final int TARGET_SHARD_SIZE = 1024;
+    private static final int MIN_SHARDS = 16;
+
+    private final Gson gson;
+    private final Path dir;
+    private final Path usersJson;
+    private final Path coursesJson;
+    private final AtomicCommitter committer;
+    private final EntityLocks locks;
+    private final int fixedShards;
+    private final Supplier<Map<Path, byte[]>> dirtyShards = this::renderDirty;
+    private final Shards<User> userShards; // their images and dirty sets are guarded by this
+    private final Shards<Course> courseShards;
+    private List<User> users;
+    private List<Course> courses;
+
+    /** @param locks the model's locks, held while {@link #ready} captures the loaded records */
+    ShardedStorage(Gson gson, Path dir, Path usersJson, Path coursesJson, EntityLocks locks) {
+        this.gson = gson;
+        this.dir = dir;
+        this.usersJson = usersJson;
+        this.coursesJson = coursesJson;
+        this.committer = new AtomicCommitter(dir.resolve("commit.manifest"));
+        this.locks = locks;
+        this.fixedShards = Integer.getInteger("skillforge.shards", 0);
+        this.userShards = new Shards<>("users", ModelTypeAdapters.USER, User.class, User::getUserId);
+        this.courseShards = new Shards<>("courses", ModelTypeAdapters.COURSE, Course.class, Course::getCourseId);
+    }
+
+    @Override
+    public void load(List<User> users, List<Course> courses) {
+        this.users = users;
+        this.courses = courses;
+        boolean seeded = userShards.files.isEmpty() && courseShards.files.isEmpty();
+        if (seeded) {
+            System.out.println(dir.getFileName() + " has no shards, importing JSON data.");
+            new JsonFileStorage(gson, usersJson, coursesJson).load(users, courses);
+        } else {
+            userShards.read(users);
+            courseShards.read(courses);
+        }
+        Map<Path, byte[]> files = new LinkedHashMap<>();
+        List<Path> stale = new ArrayList<>();
+        synchronized (this) {
+            userShards.place(users, seeded, files, stale);
+            courseShards.place(courses, seeded, files, stale);
+        }
+        if (files.isEmpty()) return;
+        try {
+            committer.commitNow(files);
+            for (Path p : stale) Files.deleteIfExists(p);
+        } catch (IOException e) { throw new IllegalStateException("Cannot write shards in " + dir, e); }
+    }
+
+    /** Captures the images {@link #load} only reserved, each under its record's lock, on a daemon thread. */
+    @Override
+    public void ready() {
+        List<User> loadedUsers = new ArrayList<>(users);
+        List<Course> loadedCourses = new ArrayList<>(courses);
+        Thread t = new Thread(() -> {
+            userShards.capture(loadedUsers);
+            courseShards.capture(loadedCourses);
+        }, "shard-record-capture");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    @Override
+    public void commit(ChangeSet changes) {
+        if (changes.isEmpty()) return;
+        Map<String, byte[]> u = userShards.encode(changes.users), c = courseShards.encode(changes.courses);
+        synchronized (this) {
+            userShards.update(u, List.of());
+            courseShards.update(c, changes.deletedCourses);
+        }
+        committer.submit(dirtyShards);
+    }
+
+    /** Runs on the committer thread: every shard dirtied since the last call, from the images. */
+    private Map<Path, byte[]> renderDirty() {
+        Map<Path, List<byte[]>> parts = new LinkedHashMap<>();
+        synchronized (this) {
+            boolean interrupted = false;
+            while (!userShards.complete() || !courseShards.complete()) {
+                try { wait(); } catch (InterruptedException e) { interrupted = true; }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            userShards.takeDirty(parts);
+            courseShards.takeDirty(parts);
+        }
+        Map<Path, byte[]> files = new LinkedHashMap<>();
+        parts.forEach((file, images) -> files.put(file, RecordImages.render(images)));
+        return files;
+    }
+
+    @Override
+    public void flush() { committer.awaitIdle(); }
+
+    @Override
+    public void close() { committer.close(); }
+
+    private int shardCountFor(int records) {
+        if (fixedShards > 0) return fixedShards;
+        int wanted = Math.max(MIN_SHARDS, (records + TARGET_SHARD_SIZE - 1) / TARGET_SHARD_SIZE);
+        return Integer.highestOneBit(wanted - 1) << 1;
+    }
+
+    /** One kind of record spread over {@code <prefix>-<n>.json} files. */
+    private final class Shards<T> {
+        final String prefix;
+        final TypeAdapter<T> adapter;
+        final Class<T> type;
+        final Function<T, String> id;
+        final Map<Integer, Path> files = new LinkedHashMap<>(); // shard files found on disk
+        List<RecordImages> shards = new ArrayList<>();
+        final Set<Integer> dirty = new TreeSet<>();
+
+        Shards(String prefix, TypeAdapter<T> adapter, Class<T> type, Function<T, String> id) {
+            this.prefix = prefix;
+            this.adapter = adapter;
+            this.type = type;
+            this.id = id;
+            Pattern name = Pattern.compile(Pattern.quote(prefix) + "-(\\d+)\\.json");
+            if (!Files.isDirectory(dir)) return;
+            try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, prefix + "-*.json")) {
+                for (Path p : ds) {
+                    Matcher m = name.matcher(p.getFileName().toString());
+                    if (m.matches()) files.put(Integer.parseInt(m.group(1)), p);
+                }
+            } catch (IOException e) { throw new IllegalStateException("Cannot list " + dir, e); }
+        }
+
+        /** Decodes every shard file in parallel and appends the records in shard order. */
+        void read(List<? super T> into) {
+            List<Integer> order = new ArrayList<>(files.keySet());
+            order.sort(null);
+            List<List<T>> parts = IntStream.range(0, order.size()).parallel()
+                    .mapToObj(i -> readShard(files.get(order.get(i))))
+                    .collect(Collectors.toList());
+            for (List<T> part : parts) into.addAll(part);
+        }
+
+        private List<T> readShard(Path file) {
+            List<T> records = new ArrayList<>();
+            try (JsonReader reader = new JsonReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+                ModelTypeAdapters.readArray(reader, adapter, records);
+            } catch (IOException e) { throw new IllegalStateException("Cannot read shard " + file, e); }
+            return records;
+        }
+
+        /**
+         * Lays out the shards for {@code records}, reserving an image for each. If the shard count
+         * differs from the files on disk (or the data was just imported) the images are encoded
+         * straight away, every shard is queued for writing and files past the new count are
+         * reported as stale.
+         */
+        void place(List<T> records, boolean rewrite, Map<Path, byte[]> out, List<Path> stale) {
+            int n = shardCountFor(records.size());
+            shards = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) shards.add(new RecordImages());
+            boolean layoutChanged = rewrite || files.size() != n || files.keySet().stream().anyMatch(i -> i >= n);
+            for (T r : records) {
+                RecordImages shard = shards.get(shardOf(id.apply(r)));
+                if (layoutChanged) shard.put(id.apply(r), RecordImages.encode(gson, r, type));
+                else shard.reserve(id.apply(r));
+            }
+            if (!layoutChanged) return;
+            for (int i = 0; i < n; i++) out.put(file(i), RecordImages.render(shards.get(i).parts()));
+            for (Map.Entry<Integer, Path> e : files.entrySet()) if (e.getKey() >= n) stale.add(e.getValue());
+        }
+
+        void capture(List<T> records) {
+            for (T r : records) {
+                String key = id.apply(r);
+                try (EntityLocks.Held h = locks.entities(key)) {
+                    byte[] image = RecordImages.encode(gson, r, type);
+                    synchronized (ShardedStorage.this) { shards.get(shardOf(key)).fill(key, image); ShardedStorage.this.notifyAll(); }
+                }
+            }
+        }
+
+        /** Encodes changed records; the caller holds their locks. */
+        Map<String, byte[]> encode(Iterable<T> changed) {
+            Map<String, byte[]> out = new LinkedHashMap<>();
+            for (T r : changed) out.put(id.apply(r), RecordImages.encode(gson, r, type));
+            return out;
+        }
+
+        /** Applies changed and deleted records and marks the shards they dirtied. */
+        void update(Map<String, byte[]> changed, Iterable<String> deleted) {
+            changed.forEach((key, image) -> {
+                int s = shardOf(key);
+                shards.get(s).put(key, image);
+                dirty.add(s);
+            });
+            for (String d : deleted) {
+                int s = shardOf(d);
+                if (shards.get(s).remove(d)) dirty.add(s);
+            }
+        }
+
+        boolean complete() { return shards.stream().allMatch(RecordImages::complete); }
+
+        void takeDirty(Map<Path, List<byte[]>> out) {
+            for (int s : dirty) out.put(file(s), shards.get(s).parts());
+            dirty.clear();
+        }
+
+        private int shardOf(String key) { return Math.floorMod(key == null ? 0 : key.hashCode(), shards.size()); }
+        private Path file(int shard) { return dir.resolve(prefix + "-" + shard + ".json"); }
+    }
+}
@@ -0,0 +1,71 @@
+package database;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import models.Course;
+import models.Lesson;
+import models.User;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts a data directory between users.json/courses.json and the binary snapshot.
+ * <pre>
+ *   java -cp ... database.SnapshotConverter to-binary [dataDir]
+ *   java -cp ... database.SnapshotConverter to-json   [dataDir]
+ * </pre>
+ * Lesson bodies live in {@code dataDir/lessons}, outside both formats; the converter copies them
+ * into the lessons it writes so the output stands on its own. Opening the converted directory moves
+ * them back out (see {@link JsonDatabaseManager}).
+ */
+public final class SnapshotConverter {
+    private SnapshotConverter() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || !(args[0].equals("to-binary") || args[0].equals("to-json"))) {
+            System.err.println("usage: SnapshotConverter to-binary|to-json [dataDir]");
+            System.exit(2);
+        }
+        Path dir = Paths.get(args.length > 1 ? args[1] : "data");
+        Gson gson = ModelTypeAdapters.register(new GsonBuilder()).setPrettyPrinting().create();
+        Path usersJson = dir.resolve("users.json"), coursesJson = dir.resolve("courses.json");
+        Path snapshot = dir.resolve(JsonDatabaseManager.SNAPSHOT_FILE_NAME);
+        AtomicCommitter committer = new AtomicCommitter(dir.resolve("commit.manifest"));
+        List<User> users = new ArrayList<>();
+        List<Course> courses = new ArrayList<>();
+        Map<Path, byte[]> files = new LinkedHashMap<>();
+
+        LessonContentStore lessons = new LessonContentStore(dir.resolve(JsonDatabaseManager.LESSONS_DIR), 1);
+        if (args[0].equals("to-binary")) {
+            new JsonFileStorage(gson, usersJson, coursesJson).load(users, courses);
+            inlineLessonBodies(courses, lessons);
+            files.put(snapshot, BinarySnapshot.encode(users, courses));
+        } else {
+            BinarySnapshot.read(snapshot, users, courses);
+            inlineLessonBodies(courses, lessons);
+            files.put(usersJson, gson.toJson(users).getBytes(StandardCharsets.UTF_8));
+            files.put(coursesJson, gson.toJson(courses).getBytes(StandardCharsets.UTF_8));
+        }
+        committer.commitNow(files);
+        committer.close();
+        lessons.close();
+        System.out.println("Converted " + users.size() + " users and " + courses.size() + " courses in " + dir);
+    }
+
+    /** Puts each stored lesson body back into its lesson; lessons without one keep what they have. */
+    private static void inlineLessonBodies(List<Course> courses, LessonContentStore lessons) {
+        for (Course c : courses) for (Lesson l : c.getLessons()) {
+            if (!lessons.has(l.getLessonId())) continue;
+            LessonContentStore.Body b = lessons.get(l.getLessonId());
+            l.setContent(b.content);
+            l.setResources(new ArrayList<>(b.resources));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package database;
+
+import models.Course;
+import models.User;
+
+import java.util.List;
+
+/**
+ * Persistence backend behind {@link JsonDatabaseManager}. The manager owns the in-memory
+ * lists; a storage fills them at startup and is told about every mutation as a {@link ChangeSet}.
+ */
+interface Storage {
+    void load(List<User> users, List<Course> courses);
+    /**
+     * Called once the manager has finished preparing the loaded model and before any writer runs,
+     * for storages that keep their own copy of it.
+     */
+    default void ready() {}
+    /**
+     * Called with the locks of every record in the change set held, so it may read those records
+     * but no others. Should return without waiting for the disk; {@link #flush} does that.
+     */
+    void commit(ChangeSet changes);
+    /**
+     * True if a commit serializes records beyond the ones in its change set. The manager then
+     * only commits to it from a write-behind flusher holding the exclusive lock, so no other
+     * writer's change can be caught half-applied.
+     */
+    default boolean snapshotsWholeModel() { return false; }
+    /** Pushes any commits the storage is still holding back to disk. */
+    default void flush() {}
+    default void close() {}
+}
@@ -0,0 +1,203 @@
+package database;
+
+import models.Course;
+import models.Lesson;
+import models.Student;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Replays a mix of student activity against {@link JsonDatabaseManager} from N threads and prints
+ * throughput and latency percentiles per operation. Pair it with {@link DatasetGenerator}:
+ * <pre>
+ *   java -cp ... database.DatasetGenerator sim-data 100000
+ *   java -Dskillforge.dataDir=sim-data -Dskillforge.storage=journal -cp ... database.WorkloadSimulator [threads] [operations]
+ * </pre>
+ * Defaults are 8 threads and 10000 operations per thread, after
+ * {@code -Dskillforge.sim.warmup} (default 1000) unrecorded ones. {@code -Dskillforge.sim.mix}
+ * weighs login, enroll, quiz and analytics operations (default {@code 25,10,45,20}):
+ * <ul>
+ *   <li>login: a random student logs in with {@code -Dskillforge.sim.password}
+ *       (default {@value DatasetGenerator#PASSWORD});</li>
+ *   <li>enroll: a random student toggles enrollment in a Zipf-popular approved course, so
+ *       enroll and unenroll balance out;</li>
+ *   <li>quiz: a random student answers a quiz in one of their courses;</li>
+ *   <li>analytics: course statistics for a popular course, mostly, else the student's progress
+ *       and one time in fifty the whole platform report.</li>
+ * </ul>
+ * Writes go through whichever storage backend is configured, and the final flush is timed too.
+ */
+public final class WorkloadSimulator {
+    private final JsonDatabaseManager db;
+    private final List<Student> students;
+    private final List<Course> courses;
+    private final DatasetGenerator.Zipf popularity;
+    private final String password;
+    private final int[] mix = new int[4]; // cumulative weights: login, enroll, quiz, analytics
+
+    private WorkloadSimulator(JsonDatabaseManager db, String mix, String password) {
+        this.db = db;
+        this.students = db.getAllStudents();
+        this.courses = db.getApprovedCourses();
+        this.popularity = new DatasetGenerator.Zipf(Math.max(1, courses.size()), Double.parseDouble(System.getProperty("skillforge.sim.zipf", "1.0")));
+        this.password = password;
+        String[] w = mix.split(",");
+        if (w.length != 4) throw new IllegalArgumentException("skillforge.sim.mix needs four weights, got " + mix);
+        for (int i = 0; i < 4; i++) this.mix[i] = (i == 0 ? 0 : this.mix[i - 1]) + Integer.parseInt(w[i].trim());
+        if (students.isEmpty() || courses.isEmpty()) throw new IllegalStateException("The data set needs students and approved courses");
+    }
+
+    /** Latencies in nanoseconds and error counts per operation, for one thread. */
+    private static final class Samples {
+        final Map<String, long[]> nanos = new TreeMap<>();
+        final Map<String, Integer> counts = new TreeMap<>();
+        final Map<String, Integer> errors = new TreeMap<>();
+
+        void add(String op, long ns, boolean ok) {
+            int n = counts.merge(op, 1, Integer::sum);
+            long[] a = nanos.computeIfAbsent(op, k -> new long[1024]);
+            if (n > a.length) nanos.put(op, a = Arrays.copyOf(a, a.length * 2));
+            a[n - 1] = ns;
+            if (!ok) errors.merge(op, 1, Integer::sum);
+        }
+
+        void addAll(Samples s) {
+            for (String op : s.counts.keySet()) {
+                long[] a = s.nanos.get(op);
+                for (int i = 0; i < s.counts.get(op); i++) add(op, a[i], true);
+                errors.merge(op, s.errors.getOrDefault(op, 0), Integer::sum);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int warmup = Integer.getInteger("skillforge.sim.warmup", 1000);
+        long seed = Long.getLong("skillforge.sim.seed", 42);
+
+        long t = System.nanoTime();
+        JsonDatabaseManager db = JsonDatabaseManager.getInstance();
+        WorkloadSimulator sim = new WorkloadSimulator(db, System.getProperty("skillforge.sim.mix", "25,10,45,20"),
+                System.getProperty("skillforge.sim.password", DatasetGenerator.PASSWORD));
+        System.out.printf(Locale.ROOT, "Loaded %d students and %d approved courses in %.1f s; %d threads x %d operations (+%d warm-up), storage %s%n",
+                sim.students.size(), sim.courses.size(), (System.nanoTime() - t) / 1e9, threads, operations, warmup, System.getProperty("skillforge.storage", "json"));
+
+        CountDownLatch start = new CountDownLatch(1), warm = new CountDownLatch(threads);
+        Samples[] results = new Samples[threads];
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int n = i;
+            SplittableRandom r = new SplittableRandom(seed * 1_000_003 + i);
+            Thread w = new Thread(() -> {
+                sim.run(r, warmup, new Samples());
+                warm.countDown();
+                try { start.await(); } catch (InterruptedException e) { return; }
+                results[n] = sim.run(r, operations, new Samples());
+            }, "workload-" + i);
+            workers.add(w);
+            w.start();
+        }
+        warm.await();
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Thread w : workers) w.join();
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        Samples merged = new Samples(), all = new Samples();
+        for (Samples s : results) {
+            merged.addAll(s);
+            for (String op : s.counts.keySet()) {
+                long[] a = s.nanos.get(op);
+                for (int i = 0; i < s.counts.get(op); i++) all.add("all", a[i], true);
+            }
+        }
+        int errors = merged.errors.values().stream().mapToInt(Integer::intValue).sum();
+        all.errors.put("all", errors);
+
+        System.out.printf("%-9s %9s %7s %9s %9s %9s %9s %9s%n", "op", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (String op : merged.counts.keySet()) print(op, merged, seconds);
+        print("all", all, seconds);
+        long f = System.nanoTime();
+        db.flush();
+        System.out.printf(Locale.ROOT, "%.0f operations/s over %.1f s; final flush %.1f ms%n", all.counts.get("all") / seconds, seconds, (System.nanoTime() - f) / 1e6);
+    }
+
+    private static void print(String op, Samples s, double seconds) {
+        int n = s.counts.getOrDefault(op, 0);
+        long[] a = Arrays.copyOf(s.nanos.getOrDefault(op, new long[0]), n);
+        Arrays.sort(a);
+        System.out.printf(Locale.ROOT, "%-9s %9d %7d %9.0f %9.3f %9.3f %9.3f %9.3f%n", op, n, s.errors.getOrDefault(op, 0), n / seconds,
+                pct(a, 0.50), pct(a, 0.90), pct(a, 0.99), n == 0 ? 0.0 : a[n - 1] / 1e6);
+    }
+
+    private static double pct(long[] sorted, double p) {
+        return sorted.length == 0 ? 0.0 : sorted[Math.max(0, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    // --- One worker ---
+    private Samples run(SplittableRandom r, int operations, Samples samples) {
+        for (int i = 0; i < operations; i++) {
+            Student s = students.get(r.nextInt(students.size()));
+            int pick = r.nextInt(mix[3]);
+            String op = pick < mix[0] ? "login" : pick < mix[1] ? "enroll" : pick < mix[2] ? "quiz" : "analytics";
+            long t = System.nanoTime();
+            String done = null;
+            try {
+                done = perform(op, s, r);
+            } catch (RuntimeException e) {
+                // Counted as an error below; the run carries on
+            }
+            samples.add(done != null ? done : op, System.nanoTime() - t, done != null);
+        }
+        return samples;
+    }
+
+    /** Runs one operation and returns the name to record it under, or null if it failed. */
+    private String perform(String op, Student s, SplittableRandom r) {
+        switch (op) {
+            case "login":
+                return db.loginUser(s.getEmail(), password) != null ? "login" : null;
+            case "enroll": {
+                String courseId = courses.get(popularity.next(r)).getCourseId();
+                if (db.isEnrolled(s.getUserId(), courseId)) {
+                    db.unenrollStudentFromCourse(s.getUserId(), courseId);
+                    return "unenroll";
+                }
+                db.enrollStudentInCourse(s.getUserId(), courseId);
+                return "enroll";
+            }
+            case "quiz": {
+                List<Course> mine = db.getEnrolledCourses(s.getUserId());
+                Course c = mine.isEmpty() ? null : mine.get(r.nextInt(mine.size()));
+                List<Lesson> quizzes = new ArrayList<>();
+                if (c != null) for (Lesson l : c.getLessons()) if (l.getQuiz() != null) quizzes.add(l);
+                if (quizzes.isEmpty()) return perform("enroll", s, r); // nothing to answer yet
+                Lesson l = quizzes.get(r.nextInt(quizzes.size()));
+                int[] answers = new int[l.getQuiz().getQuestions().size()];
+                for (int q = 0; q < answers.length; q++) {
+                    int options = l.getQuiz().getQuestions().get(q).getOptions().size();
+                    answers[q] = r.nextInt(3) < 2 ? l.getQuiz().getQuestions().get(q).getCorrectOptionIndex() : r.nextInt(Math.max(1, options));
+                }
+                db.submitQuizAnswers(s.getUserId(), c.getCourseId(), l.getLessonId(), answers);
+                return "quiz";
+            }
+            default: {
+                int kind = r.nextInt(50);
+                if (kind == 0) return db.getPlatformReport() != null ? "report" : null;
+                if (kind < 15) {
+                    List<String> mine = s.getEnrolledCourses();
+                    if (!mine.isEmpty()) { db.getCourseProgress(s.getUserId(), mine.get(r.nextInt(mine.size()))); return "progress"; }
+                }
+                db.getCourseStatistics(courses.get(popularity.next(r)).getCourseId());
+                return "stats";
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package database;
+
+import models.Course;
+import models.User;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Defers commits to a background flusher. The first change after a flush schedules the next
+ * one {@code maxLatencyMs} later; everything committed in between is merged into a single
+ * ChangeSet, so a burst costs at most one write per file instead of one per operation. A flush
+ * serializes under the exclusive lock, so the files never hold a writer's change half-applied;
+ * must not be called with a lock held. With no latency it still takes whole-model snapshots off
+ * the writers' path: they return at once and the flusher catches up behind them.
+ */
+class WriteBehindStorage implements Storage {
+    private final Storage delegate;
+    private final long maxLatencyMs;
+    private final EntityLocks locks;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "write-behind-flusher");
+        t.setDaemon(true);
+        return t;
+    });
+    private ChangeSet pending; // guarded by this
+
+    /** @param locks the model's locks; flushes serialize under the exclusive lock, so no writer is mid-change. */
+    WriteBehindStorage(Storage delegate, long maxLatencyMs, EntityLocks locks) {
+        this.delegate = delegate;
+        this.maxLatencyMs = maxLatencyMs;
+        this.locks = locks;
+    }
+
+    @Override
+    public void load(List<User> users, List<Course> courses) { delegate.load(users, courses); }
+
+    @Override
+    public void ready() { delegate.ready(); }
+
+    @Override
+    public synchronized void commit(ChangeSet changes) {
+        if (changes.isEmpty()) return;
+        if (pending == null) {
+            pending = new ChangeSet();
+            flusher.schedule(this::flush, maxLatencyMs, TimeUnit.MILLISECONDS);
+        }
+        pending.merge(changes);
+    }
+
+    @Override
+    @SuppressWarnings("try") // the held lock is only there to be released
+    public void flush() {
+        try (EntityLocks.Held h = locks.exclusive()) {
+            ChangeSet batch;
+            synchronized (this) { batch = pending; pending = null; }
+            if (batch != null) delegate.commit(batch);
+        }
+        delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        flush();
+        delegate.close();
+    }
+}
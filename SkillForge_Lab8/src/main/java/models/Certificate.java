@@ -10,14 +10,19 @@ public class Certificate {
 
     public Certificate(String certificateId, String studentId, String studentName, String courseId, String courseTitle, String issueDate) {
         this.certificateId = certificateId;
-        this.studentId = studentId;
+        this.studentId = IdDictionary.canonical(studentId);
         this.studentName = studentName;
-        this.courseId = courseId;
+        this.courseId = IdDictionary.canonical(courseId);
         this.courseTitle = courseTitle;
         this.issueDate = issueDate;
     }
     
+    public String getCertificateId() { return certificateId; }
+    public String getStudentId() { return studentId; }
+    public String getStudentName() { return studentName; }
     public String getCourseId() { return courseId; }
+    public String getCourseTitle() { return courseTitle; }
+    public String getIssueDate() { return issueDate; }
     
     @Override
     public String toString() {
@@ -1,6 +1,9 @@
 package models;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 public class Course {
     private String courseId;
@@ -8,17 +11,18 @@ public class Course {
     private String description;
     private String instructorId;
     private List<Lesson> lessons;
-    private List<String> students; 
+    private List<String> students; // as loaded, until bindStudents hands the membership over
+    private volatile Supplier<List<String>> studentsView;
     private CourseStatus status;
 
     public Course(String courseId, String title, String description, String instructorId,
                   List<Lesson> lessons, List<String> students, CourseStatus status) {
-        this.courseId = courseId;
+        this.courseId = IdDictionary.canonical(courseId);
         this.title = title;
         this.description = description;
-        this.instructorId = instructorId;
-        this.lessons = lessons;
-        this.students = students;
+        this.instructorId = IdDictionary.canonical(instructorId);
+        this.lessons = (lessons != null) ? new CopyOnWriteArrayList<>(lessons) : new CopyOnWriteArrayList<>();
+        this.students = (students != null) ? Collections.unmodifiableList(IdDictionary.canonical(students)) : Collections.emptyList();
         this.status = status;
     }
 
@@ -27,13 +31,23 @@ public class Course {
     public String getDescription() { return description; }
     public String getInstructorId() { return instructorId; }
     public List<Lesson> getLessons() { return lessons; }
-    public List<String> getStudents() { return students; }
+    /** Ids of the enrolled students, read-only; enroll through the database, which owns the membership. */
+    public List<String> getStudents() {
+        Supplier<List<String>> view = studentsView;
+        return view != null ? view.get() : students;
+    }
     public CourseStatus getStatus() { return status; }
 
     public void setTitle(String title) { this.title = title; }
     public void setDescription(String description) { this.description = description; }
     public void setStatus(CourseStatus status) { this.status = status; }
 
+    /** From now on {@link #getStudents()} reads {@code view}, and the loaded list is dropped. */
+    public void bindStudents(Supplier<List<String>> view) {
+        studentsView = view;
+        students = Collections.emptyList();
+    }
+
     @Override
     public String toString() {
         return title + " (" + status + ")";
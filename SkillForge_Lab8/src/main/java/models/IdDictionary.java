@@ -0,0 +1,56 @@
+package models;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Process-wide dictionary of id strings. The model constructors pass every id they are given
+ * through {@link #canonical(String)}, so each UUID is held by one String instance however many
+ * courses, enrollments, scores and certificates refer to it; the copies the JSON reader produced
+ * become garbage straight away. Getters keep returning plain Strings.
+ * <p>
+ * The dictionary only holds its ids weakly: once no record refers to an id any more, say after
+ * the course or lesson is deleted, the entry is collected with it. Entries are spread over
+ * striped maps so concurrent writers rarely meet on the same lock.
+ */
+public final class IdDictionary {
+    private static final int STRIPES = 16; // power of two
+    private static final List<Map<String, WeakReference<String>>> IDS = new ArrayList<>(STRIPES); // each guarded by itself
+
+    static {
+        for (int i = 0; i < STRIPES; i++) IDS.add(new WeakHashMap<>());
+    }
+
+    private IdDictionary() {}
+
+    /** Returns the shared instance equal to {@code id}. */
+    public static String canonical(String id) {
+        if (id == null) return null;
+        Map<String, WeakReference<String>> stripe = IDS.get(id.hashCode() & (STRIPES - 1));
+        synchronized (stripe) {
+            WeakReference<String> ref = stripe.get(id);
+            String c = ref != null ? ref.get() : null;
+            if (c != null) return c;
+            stripe.put(id, new WeakReference<>(id));
+            return id;
+        }
+    }
+
+    /** Copies the list with every element replaced by its shared instance. */
+    public static List<String> canonical(List<String> ids) {
+        if (ids == null) return null;
+        List<String> out = new ArrayList<>(ids.size());
+        for (String id : ids) out.add(canonical(id));
+        return out;
+    }
+
+    /** Number of distinct ids held, counting only those still referenced since the last collection. */
+    public static int size() {
+        int n = 0;
+        for (Map<String, WeakReference<String>> stripe : IDS) synchronized (stripe) { n += stripe.size(); }
+        return n;
+    }
+}
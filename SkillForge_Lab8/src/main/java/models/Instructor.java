@@ -1,13 +1,14 @@
 package models;
 
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Instructor extends User {
     private List<String> createdCourses;
 
     public Instructor(String userId, String username, String email, String passwordHash, String role, List<String> createdCourses) {
         super(userId, username, email, passwordHash, role);
-        this.createdCourses = createdCourses;
+        this.createdCourses = (createdCourses != null) ? new CopyOnWriteArrayList<>(IdDictionary.canonical(createdCourses)) : new CopyOnWriteArrayList<>();
     }
 
     public List<String> getCreatedCourses() { return createdCourses; }
@@ -10,7 +10,7 @@ public class Lesson {
     private Quiz quiz;
 
     public Lesson(String lessonId, String title, String content, List<String> resources, Quiz quiz) {
-        this.lessonId = lessonId;
+        this.lessonId = IdDictionary.canonical(lessonId);
         this.title = title;
         this.content = content;
         this.resources = resources;
@@ -25,6 +25,7 @@ public class Lesson {
 
     public void setTitle(String title) { this.title = title; }
     public void setContent(String content) { this.content = content; }
+    public void setResources(List<String> resources) { this.resources = resources; }
     public void setQuiz(Quiz quiz) { this.quiz = quiz; }
 
     @Override
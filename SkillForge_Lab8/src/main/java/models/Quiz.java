@@ -9,7 +9,7 @@ public class Quiz {
 
     public Quiz(String quizId, String lessonId, List<Question> questions) {
         this.quizId = quizId;
-        this.lessonId = lessonId;
+        this.lessonId = IdDictionary.canonical(lessonId);
         this.questions = questions;
     }
 
@@ -0,0 +1,145 @@
+package models;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A student's best quiz score per lesson id, stored as an open-addressing table of canonical
+ * lesson-id references next to a {@code short[]} of scores: no boxed values and no entry objects.
+ * Lookups compare by reference first, which is the common case since ids are shared through
+ * {@link IdDictionary}. It still behaves as a {@code Map<String, Integer>}, so serialization and
+ * existing callers are unchanged; iteration walks a snapshot.
+ * <p>
+ * Methods are synchronized: the owning student's writer holds its entity lock, but snapshot
+ * writers and the UI read concurrently.
+ */
+public final class QuizScores extends AbstractMap<String, Integer> {
+    /** Returned by {@link #score(String)} when the lesson has no score. */
+    public static final int NONE = Integer.MIN_VALUE;
+
+    private String[] keys;
+    private short[] scores;
+    private int size;
+
+    public QuizScores() { this(4); }
+
+    public QuizScores(Map<String, Integer> initial) {
+        this(initial == null ? 4 : initial.size());
+        if (initial != null) for (Map.Entry<String, Integer> e : initial.entrySet()) put(e.getKey(), e.getValue());
+    }
+
+    /** An empty table sized for {@code expected} scores, for readers that know the count up front. */
+    public QuizScores(int expected) {
+        int cap = 4;
+        while (cap * 3 < expected * 4) cap <<= 1;
+        keys = new String[cap];
+        scores = new short[cap];
+    }
+
+    /** Single-probe lookup; {@link #NONE} if the lesson has no score. */
+    public synchronized int score(String lessonId) {
+        if (lessonId == null) return NONE;
+        int i = find(lessonId);
+        return keys[i] == null ? NONE : scores[i];
+    }
+
+    @Override
+    public synchronized Integer get(Object key) {
+        if (!(key instanceof String)) return null;
+        int i = find((String) key);
+        return keys[i] == null ? null : (int) scores[i];
+    }
+
+    @Override
+    public boolean containsKey(Object key) { return get(key) != null; }
+
+    @Override
+    public synchronized Integer put(String lessonId, Integer score) {
+        if (lessonId == null || score == null) throw new NullPointerException("Quiz scores need a lesson id and a score");
+        if (score < Short.MIN_VALUE || score > Short.MAX_VALUE) throw new IllegalArgumentException("Score out of range: " + score);
+        int i = find(lessonId);
+        if (keys[i] != null) {
+            int old = scores[i];
+            scores[i] = (short) (int) score;
+            return old;
+        }
+        keys[i] = IdDictionary.canonical(lessonId);
+        scores[i] = (short) (int) score;
+        if (++size * 4 > keys.length * 3) grow();
+        return null;
+    }
+
+    @Override
+    public synchronized Integer remove(Object key) {
+        if (!(key instanceof String)) return null;
+        int i = find((String) key);
+        if (keys[i] == null) return null;
+        int old = scores[i];
+        keys[i] = null;
+        size--;
+        int mask = keys.length - 1;
+        // Backward-shift deletion: pull later entries of the probe run into the gap
+        for (int j = (i + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+            int home = hash(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j]; scores[i] = scores[j]; keys[j] = null; i = j;
+            }
+        }
+        return old;
+    }
+
+    @Override
+    public synchronized int size() { return size; }
+
+    @Override
+    public synchronized void clear() {
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Integer>> entrySet() {
+        return new AbstractSet<>() {
+            @Override public Iterator<Map.Entry<String, Integer>> iterator() { return Collections.unmodifiableList(snapshot()).iterator(); }
+            @Override public int size() { return QuizScores.this.size(); }
+        };
+    }
+
+    private synchronized List<Map.Entry<String, Integer>> snapshot() {
+        List<Map.Entry<String, Integer>> out = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) if (keys[i] != null) out.add(new SimpleImmutableEntry<>(keys[i], (int) scores[i]));
+        return out;
+    }
+
+    private int find(String key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        for (String k; (k = keys[i]) != null; i = (i + 1) & mask) if (k == key || k.equals(key)) return i;
+        return i;
+    }
+
+    private void grow() {
+        String[] oldKeys = keys;
+        short[] oldScores = scores;
+        keys = new String[oldKeys.length * 2];
+        scores = new short[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) continue;
+            int j = find(oldKeys[i]);
+            keys[j] = oldKeys[i];
+            scores[j] = oldScores[i];
+        }
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
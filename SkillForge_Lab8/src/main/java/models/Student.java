@@ -1,33 +1,48 @@
 package models;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 public class Student extends User {
-    private List<String> enrolledCourses;
-    private Map<String, Integer> quizScores; // Map<lessonId, score>
+    private List<String> enrolledCourses; // as loaded, until bindEnrolledCourses hands the membership over
+    private volatile Supplier<List<String>> enrolledCoursesView;
+    private QuizScores quizScores; // lessonId -> best score
     private List<Certificate> certificates;
 
     public Student(String userId, String username, String email, String passwordHash, String role,
                    List<String> enrolledCourses, Map<String, Integer> quizScores, List<Certificate> certificates) {
         super(userId, username, email, passwordHash, role);
-        this.enrolledCourses = enrolledCourses;
-        this.quizScores = (quizScores != null) ? quizScores : new HashMap<>();
-        this.certificates = (certificates != null) ? certificates : new ArrayList<>();
+        // Concurrent collections: the database layer reads these while other threads update them
+        this.enrolledCourses = (enrolledCourses != null) ? Collections.unmodifiableList(IdDictionary.canonical(enrolledCourses)) : Collections.emptyList();
+        // Readers build a QuizScores directly; it is adopted as is rather than copied
+        this.quizScores = quizScores instanceof QuizScores ? (QuizScores) quizScores : new QuizScores(quizScores);
+        this.certificates = (certificates != null) ? new CopyOnWriteArrayList<>(certificates) : new CopyOnWriteArrayList<>();
     }
 
-    public List<String> getEnrolledCourses() { return enrolledCourses; }
+    /** Ids of the courses the student is enrolled in, read-only; enroll through the database, which owns the membership. */
+    public List<String> getEnrolledCourses() {
+        Supplier<List<String>> view = enrolledCoursesView;
+        return view != null ? view.get() : enrolledCourses;
+    }
     public Map<String, Integer> getQuizScores() { return quizScores; }
     public List<Certificate> getCertificates() { return certificates; }
     
     public boolean isLessonCompleted(String lessonId) {
-        // Passed if score is 50 or higher
-        return quizScores.containsKey(lessonId) && quizScores.get(lessonId) >= 50;
+        // Passed if score is 50 or higher; one probe, no unboxing
+        int score = quizScores.score(lessonId);
+        return score != QuizScores.NONE && score >= 50;
     }
     
     public void addCertificate(Certificate cert) {
         this.certificates.add(cert);
     }
+
+    /** From now on {@link #getEnrolledCourses()} reads {@code view}, and the loaded list is dropped. */
+    public void bindEnrolledCourses(Supplier<List<String>> view) {
+        enrolledCoursesView = view;
+        enrolledCourses = Collections.emptyList();
+    }
 }
\ No newline at end of file
@@ -8,11 +8,11 @@ public abstract class User {
     protected String role;
 
     public User(String userId, String username, String email, String passwordHash, String role) {
-        this.userId = userId;
+        this.userId = IdDictionary.canonical(userId);
         this.username = username;
         this.email = email;
         this.passwordHash = passwordHash;
-        this.role = role;
+        this.role = IdDictionary.canonical(role); // one of three values, shared like the ids
     }
 
     public String getUserId() { return userId; }
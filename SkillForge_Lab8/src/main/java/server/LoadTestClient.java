@@ -0,0 +1,181 @@
+package server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load test for {@link SkillForgeServer}: registers and logs in N simulated students, then starts
+ * them all at once, each looping catalog -> enroll -> course -> lesson -> quiz submit -> stats ->
+ * my courses against a random approved course, and prints p50/p99 latency per operation.
+ * <p>
+ * Usage: {@code java server.LoadTestClient [baseUrl] [students] [iterations]}, defaulting to
+ * {@code http://localhost:8080 1000 10}. The server needs at least one approved course; quiz
+ * steps are skipped for courses without quizzes.
+ */
+public final class LoadTestClient {
+    private final String base;
+    private final HttpClient http;
+
+    private LoadTestClient(String base, ExecutorService executor) {
+        this.base = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+        this.http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).connectTimeout(Duration.ofSeconds(10)).build();
+    }
+
+    /** Latencies in nanoseconds and error counts, per operation, for one simulated student. */
+    private static final class Samples {
+        final Map<String, long[]> nanos = new HashMap<>();
+        final Map<String, Integer> counts = new HashMap<>();
+        final Map<String, Integer> errors = new HashMap<>();
+
+        void add(String op, long ns, boolean ok) {
+            int n = counts.merge(op, 1, Integer::sum);
+            long[] a = nanos.computeIfAbsent(op, k -> new long[16]);
+            if (n > a.length) nanos.put(op, a = Arrays.copyOf(a, a.length * 2));
+            a[n - 1] = ns;
+            if (!ok) errors.merge(op, 1, Integer::sum);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String base = args.length > 0 ? args[0] : "http://localhost:8080";
+        int students = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        ExecutorService executor = RequestExecutors.perRequest("load");
+        LoadTestClient client = new LoadTestClient(base, executor);
+
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<Future<String>> logins = new ArrayList<>();
+        for (int i = 0; i < students; i++) {
+            String email = "load-" + run + "-" + i + "@skillforge.test";
+            logins.add(executor.submit(() -> client.signUp(email)));
+        }
+        List<String> tokens = new ArrayList<>();
+        for (Future<String> f : logins) tokens.add(f.get());
+        if (client.send("GET", "/api/courses", tokens.get(0), null).getAsJsonArray().size() == 0) {
+            System.err.println("The server has no approved courses to test against");
+            System.exit(1);
+        }
+        System.out.printf("%d students logged in (%s threads), %d iterations each%n", students, RequestExecutors.VIRTUAL ? "virtual" : "platform", iterations);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Samples>> runs = new ArrayList<>();
+        for (String token : tokens) runs.add(executor.submit(() -> { start.await(); return client.simulate(token, iterations); }));
+        long t0 = System.nanoTime();
+        start.countDown();
+        Map<String, Samples> merged = new TreeMap<>();
+        Samples all = new Samples();
+        for (Future<Samples> f : runs) {
+            Samples s = f.get();
+            for (String op : s.counts.keySet()) {
+                Samples m = merged.computeIfAbsent(op, k -> new Samples());
+                long[] a = s.nanos.get(op);
+                for (int i = 0; i < s.counts.get(op); i++) { m.add(op, a[i], true); all.add("all", a[i], true); }
+                m.errors.merge(op, s.errors.getOrDefault(op, 0), Integer::sum);
+            }
+        }
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        executor.shutdownNow();
+
+        System.out.printf("%-8s %8s %7s %9s %9s %9s%n", "op", "requests", "errors", "p50 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, Samples> e : merged.entrySet()) print(e.getKey(), e.getValue(), e.getValue().errors.values().stream().mapToInt(Integer::intValue).sum());
+        int errors = merged.values().stream().flatMap(s -> s.errors.values().stream()).mapToInt(Integer::intValue).sum();
+        print("all", all, errors);
+        System.out.printf(Locale.ROOT, "%.0f requests/s over %.1f s%n", all.counts.get("all") / seconds, seconds);
+    }
+
+    private static void print(String op, Samples s, int errors) {
+        int n = s.counts.getOrDefault(op, 0);
+        long[] a = Arrays.copyOf(s.nanos.getOrDefault(op, new long[0]), n);
+        Arrays.sort(a);
+        System.out.printf(Locale.ROOT, "%-8s %8d %7d %9.2f %9.2f %9.2f%n", op, n, errors, pct(a, 0.50), pct(a, 0.99), n == 0 ? 0.0 : a[n - 1] / 1e6);
+    }
+
+    private static double pct(long[] sorted, double p) {
+        return sorted.length == 0 ? 0.0 : sorted[Math.max(0, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    // --- One simulated student ---
+    private String signUp(String email) throws Exception {
+        JsonObject creds = new JsonObject();
+        creds.addProperty("username", email.substring(0, email.indexOf('@')));
+        creds.addProperty("email", email);
+        creds.addProperty("password", "load-test");
+        send("POST", "/api/register", null, creds);
+        return send("POST", "/api/login", null, creds).getAsJsonObject().get("token").getAsString();
+    }
+
+    private Samples simulate(String token, int iterations) throws Exception {
+        Samples samples = new Samples();
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        for (int i = 0; i < iterations; i++) {
+            try {
+                iteration(samples, token, rnd);
+            } catch (IllegalStateException e) {
+                // Already counted as an error; carry on with the next round
+            }
+        }
+        return samples;
+    }
+
+    private void iteration(Samples samples, String token, ThreadLocalRandom rnd) throws Exception {
+        JsonArray catalog = timed(samples, "catalog", "GET", "/api/courses", token, null).getAsJsonArray();
+        String courseId = catalog.get(rnd.nextInt(catalog.size())).getAsJsonObject().get("courseId").getAsString();
+        String course = "/api/courses/" + courseId;
+        timed(samples, "enroll", "POST", course + "/enroll", token, null);
+        List<String> quizLessons = new ArrayList<>();
+        for (JsonElement l : timed(samples, "course", "GET", course, token, null).getAsJsonObject().getAsJsonArray("lessons")) {
+            if (l.getAsJsonObject().get("hasQuiz").getAsBoolean()) quizLessons.add(l.getAsJsonObject().get("lessonId").getAsString());
+        }
+        if (!quizLessons.isEmpty()) {
+            String lesson = course + "/lessons/" + quizLessons.get(rnd.nextInt(quizLessons.size()));
+            JsonArray questions = timed(samples, "lesson", "GET", lesson, token, null).getAsJsonObject().getAsJsonArray("quiz");
+            JsonArray answers = new JsonArray();
+            for (JsonElement q : questions) answers.add(rnd.nextInt(q.getAsJsonObject().getAsJsonArray("options").size()));
+            JsonObject body = new JsonObject();
+            body.add("answers", answers);
+            timed(samples, "quiz", "POST", lesson + "/quiz", token, body);
+        }
+        timed(samples, "stats", "GET", course + "/stats", token, null);
+        timed(samples, "mine", "GET", "/api/me/courses", token, null);
+    }
+
+    private JsonElement timed(Samples samples, String op, String method, String path, String token, JsonObject body) throws Exception {
+        long t = System.nanoTime();
+        try {
+            JsonElement out = send(method, path, token, body);
+            samples.add(op, System.nanoTime() - t, true);
+            return out;
+        } catch (IllegalStateException e) {
+            samples.add(op, System.nanoTime() - t, false);
+            throw e;
+        }
+    }
+
+    private JsonElement send(String method, String path, String token, JsonObject body) throws Exception {
+        HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(60))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body.toString()));
+        if (token != null) req.header("Authorization", "Bearer " + token);
+        HttpResponse<String> res = http.send(req.build(), HttpResponse.BodyHandlers.ofString());
+        if (res.statusCode() != 200) throw new IllegalStateException(method + " " + path + " -> " + res.statusCode() + " " + res.body());
+        return JsonParser.parseString(res.body());
+    }
+}
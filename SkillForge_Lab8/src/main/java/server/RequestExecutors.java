@@ -0,0 +1,44 @@
+package server;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-per-request executors. On JDK 21+ these run each task on its own virtual thread; the
+ * build still targets 17, so the factory is looked up reflectively and, when absent, falls back
+ * to a cached pool of daemon platform threads, which gives the same one-thread-per-request shape.
+ */
+final class RequestExecutors {
+    private RequestExecutors() {}
+
+    /** True when the running JDK provides virtual threads. */
+    static final boolean VIRTUAL = hasVirtualThreads();
+
+    static ExecutorService perRequest(String name) {
+        if (VIRTUAL) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Virtual thread executor unavailable", e);
+            }
+        }
+        AtomicInteger n = new AtomicInteger();
+        ThreadFactory threads = r -> {
+            Thread t = new Thread(r, name + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        return Executors.newCachedThreadPool(threads);
+    }
+
+    private static boolean hasVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
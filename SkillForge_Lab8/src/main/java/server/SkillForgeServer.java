@@ -0,0 +1,307 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import database.JsonDatabaseManager;
+import models.Course;
+import models.CourseStatus;
+import models.Lesson;
+import models.Question;
+import models.Student;
+import models.User;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless server mode: a JSON API over {@link JsonDatabaseManager} on the JDK's built-in
+ * HTTP server, one thread per request (virtual threads where available, see
+ * {@link RequestExecutors}). Start with {@code java server.SkillForgeServer [port]}; the data
+ * directory and storage properties are the same as for the desktop app.
+ * <p>
+ * Endpoints, all under {@code /api}; everything except register and login needs an
+ * {@code Authorization: Bearer <token>} header from login:
+ * <ul>
+ *   <li>{@code POST register} {@code {username, email, password, role}} (Student or Instructor)</li>
+ *   <li>{@code POST login} {@code {email, password}} -> {@code {token, userId, username, role}}</li>
+ *   <li>{@code POST logout}: ends the session; sessions also expire after
+ *       {@code skillforge.http.sessionIdle.minutes} (default 30) without a request</li>
+ *   <li>{@code GET courses}: approved catalog; {@code GET courses/{id}}: one course with its lessons</li>
+ *   <li>{@code POST courses/{id}/enroll}; {@code GET me/courses}: enrolled courses with progress</li>
+ *   <li>{@code GET courses/{id}/lessons/{lessonId}}: content, resources and quiz questions (no answers)</li>
+ *   <li>{@code POST courses/{id}/lessons/{lessonId}/quiz} {@code {answers: [..]}} -> {@code {score}}</li>
+ *   <li>{@code GET courses/{id}/stats}: the course's completion and score averages</li>
+ * </ul>
+ * Errors come back as {@code {error}} with a 4xx/5xx status; the details of a 500 only go to the server's log.
+ */
+public final class SkillForgeServer {
+
+    /** Ends a request with an HTTP error status. */
+    private static final class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        final int status;
+        ApiException(int status, String message) { super(message); this.status = status; }
+    }
+
+    /** A logged-in user; {@code lastSeen} moves on with every authenticated request. */
+    private static final class Session {
+        final String userId;
+        volatile long lastSeen = System.nanoTime();
+        Session(String userId) { this.userId = userId; }
+    }
+
+    static {
+        // The built-in server keeps at most 200 idle keep-alive connections and closes the rest
+        // without a Connection: close header, so pooled clients then write into dead sockets.
+        // Allow one per simulated student; read once, when the server classes load.
+        System.getProperties().putIfAbsent("sun.net.httpserver.maxIdleConnections", "2048");
+    }
+
+    private final JsonDatabaseManager db;
+    private final HttpServer http;
+    private final ExecutorService executor;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>(); // token -> session
+    private final long sessionIdleNanos = TimeUnit.MINUTES.toNanos(Long.getLong("skillforge.http.sessionIdle.minutes", 30));
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+    private final Gson gson = new Gson();
+
+    public SkillForgeServer(JsonDatabaseManager db, int port) throws IOException {
+        this.db = db;
+        this.http = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.executor = RequestExecutors.perRequest("http");
+        http.createContext("/api/", this::handle);
+        http.setExecutor(executor);
+    }
+
+    public void start() { http.start(); }
+    public int getPort() { return http.getAddress().getPort(); }
+
+    public void stop() {
+        http.stop(1);
+        executor.shutdown();
+        db.flush();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : Integer.getInteger("skillforge.http.port", 8080);
+        SkillForgeServer server = new SkillForgeServer(JsonDatabaseManager.getInstance(), port);
+        server.start();
+        System.out.println("SkillForge API listening on port " + server.getPort() + (RequestExecutors.VIRTUAL ? " (virtual threads)" : " (platform threads)"));
+    }
+
+    // --- Dispatch ---
+    private void handle(HttpExchange ex) throws IOException {
+        int status = 200;
+        Object body;
+        try {
+            String[] path = ex.getRequestURI().getPath().substring("/api/".length()).split("/");
+            body = route(ex, ex.getRequestMethod(), path);
+        } catch (ApiException e) {
+            status = e.status;
+            body = error(e.getMessage());
+        } catch (IllegalArgumentException | JsonParseException e) {
+            status = 400;
+            body = error(e.getMessage());
+        } catch (RuntimeException e) {
+            status = 500;
+            System.err.println("Request " + ex.getRequestMethod() + " " + ex.getRequestURI() + " failed:");
+            e.printStackTrace();
+            body = error("Internal error");
+        }
+        byte[] out = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, out.length);
+        try (OutputStream os = ex.getResponseBody()) { os.write(out); }
+    }
+
+    private Object route(HttpExchange ex, String method, String[] p) throws IOException {
+        String[] key = p.clone();
+        if (p[0].equals("courses") && p.length > 1) key[1] = "{id}";
+        if (p.length > 3 && p[2].equals("lessons")) key[3] = "{lesson}";
+        switch (method + " " + String.join("/", key)) {
+            case "POST register": return register(body(ex));
+            case "POST login": return login(body(ex));
+            case "POST logout": return logout(ex);
+            case "GET courses": user(ex); return catalog();
+            case "GET courses/{id}": user(ex); return courseDetail(approvedCourse(p[1]));
+            case "POST courses/{id}/enroll": return enroll(student(ex), approvedCourse(p[1]));
+            case "GET me/courses": return myCourses(student(ex));
+            case "GET courses/{id}/lessons/{lesson}": return lesson(student(ex), p[1], p[3]);
+            case "POST courses/{id}/lessons/{lesson}/quiz": return submitQuiz(student(ex), p[1], p[3], body(ex));
+            case "GET courses/{id}/stats": user(ex); return db.getCourseStatistics(course(p[1]).getCourseId());
+            default: throw new ApiException(404, "No route for " + method + " /api/" + String.join("/", p));
+        }
+    }
+
+    // --- Auth ---
+    private Object register(JsonObject in) {
+        String role = in.has("role") ? in.get("role").getAsString() : "Student";
+        if (!role.equals("Student") && !role.equals("Instructor")) throw new ApiException(400, "Role must be Student or Instructor");
+        if (!db.registerUser(field(in, "username"), field(in, "email"), field(in, "password"), role)) throw new ApiException(409, "Email already registered");
+        return Map.of("registered", true);
+    }
+
+    private Object login(JsonObject in) {
+        User u = db.loginUser(field(in, "email"), field(in, "password"));
+        if (u == null) throw new ApiException(401, "Invalid email or password");
+        sweepSessions();
+        String token = UUID.randomUUID().toString();
+        sessions.put(token, new Session(u.getUserId()));
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("token", token); out.put("userId", u.getUserId()); out.put("username", u.getUsername()); out.put("role", u.getRole());
+        return out;
+    }
+
+    private Object logout(HttpExchange ex) {
+        String token = token(ex);
+        return Map.of("loggedOut", token != null && sessions.remove(token) != null);
+    }
+
+    private User user(HttpExchange ex) {
+        String token = token(ex);
+        Session session = token == null ? null : sessions.get(token);
+        long now = System.nanoTime();
+        if (session != null && now - session.lastSeen > sessionIdleNanos) {
+            sessions.remove(token);
+            session = null;
+        }
+        User u = session == null ? null : db.getUserById(session.userId);
+        if (u == null) throw new ApiException(401, "Login required");
+        session.lastSeen = now;
+        return u;
+    }
+
+    private static String token(HttpExchange ex) {
+        String auth = ex.getRequestHeaders().getFirst("Authorization");
+        return auth != null && auth.startsWith("Bearer ") ? auth.substring(7) : null;
+    }
+
+    /** Drops idle sessions whose clients never came back; runs from login at most once a minute. */
+    private void sweepSessions() {
+        long now = System.nanoTime(), due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + TimeUnit.MINUTES.toNanos(1))) return;
+        sessions.values().removeIf(s -> now - s.lastSeen > sessionIdleNanos);
+    }
+
+    private Student student(HttpExchange ex) {
+        User u = user(ex);
+        if (!(u instanceof Student)) throw new ApiException(403, "Students only");
+        return (Student) u;
+    }
+
+    // --- Catalog & Enrollment ---
+    private Object catalog() {
+        List<Object> out = new ArrayList<>();
+        for (Course c : db.getApprovedCourses()) out.add(summary(c));
+        return out;
+    }
+
+    private Object courseDetail(Course c) {
+        Map<String, Object> out = summary(c);
+        List<Object> lessons = new ArrayList<>();
+        for (Lesson l : c.getLessons()) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("lessonId", l.getLessonId()); m.put("title", l.getTitle()); m.put("hasQuiz", l.getQuiz() != null);
+            lessons.add(m);
+        }
+        out.put("lessons", lessons);
+        return out;
+    }
+
+    private Object enroll(Student s, Course c) {
+        db.enrollStudentInCourse(s.getUserId(), c.getCourseId());
+        return Map.of("enrolled", db.isEnrolled(s.getUserId(), c.getCourseId()));
+    }
+
+    private Object myCourses(Student s) {
+        List<Object> out = new ArrayList<>();
+        for (Course c : db.getEnrolledCourses(s.getUserId())) {
+            Map<String, Object> m = summary(c);
+            m.put("progress", db.getCourseProgress(s.getUserId(), c.getCourseId()));
+            out.add(m);
+        }
+        return out;
+    }
+
+    // --- Lessons & Quizzes ---
+    private Object lesson(Student s, String courseId, String lessonId) {
+        Lesson l = enrolledLesson(s, courseId, lessonId);
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("lessonId", l.getLessonId()); out.put("title", l.getTitle());
+        out.put("content", db.getLessonContent(lessonId)); out.put("resources", db.getLessonResources(lessonId));
+        if (l.getQuiz() != null) {
+            List<Object> questions = new ArrayList<>();
+            for (Question q : l.getQuiz().getQuestions()) questions.add(Map.of("text", q.getQuestionText(), "options", q.getOptions()));
+            out.put("quiz", questions);
+        }
+        return out;
+    }
+
+    private Object submitQuiz(Student s, String courseId, String lessonId, JsonObject in) {
+        enrolledLesson(s, courseId, lessonId);
+        if (!in.has("answers") || !in.get("answers").isJsonArray()) throw new ApiException(400, "Missing answers");
+        int[] answers = gson.fromJson(in.get("answers"), int[].class);
+        return Map.of("score", db.submitQuizAnswers(s.getUserId(), courseId, lessonId, answers));
+    }
+
+    private Lesson enrolledLesson(Student s, String courseId, String lessonId) {
+        Course c = approvedCourse(courseId);
+        if (!db.isEnrolled(s.getUserId(), courseId)) throw new ApiException(403, "Not enrolled in " + courseId);
+        for (Lesson l : c.getLessons()) if (l.getLessonId().equals(lessonId)) return l;
+        throw new ApiException(404, "No lesson " + lessonId);
+    }
+
+    // --- Helpers ---
+    private Course course(String id) {
+        Course c = db.getCourseById(id);
+        if (c == null) throw new ApiException(404, "No course " + id);
+        return c;
+    }
+
+    private Course approvedCourse(String id) {
+        Course c = course(id);
+        if (c.getStatus() != CourseStatus.APPROVED) throw new ApiException(404, "No course " + id);
+        return c;
+    }
+
+    private static Map<String, Object> summary(Course c) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("courseId", c.getCourseId()); m.put("title", c.getTitle()); m.put("description", c.getDescription());
+        m.put("instructorId", c.getInstructorId()); m.put("lessonCount", c.getLessons().size());
+        return m;
+    }
+
+    private JsonObject body(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            if (text.isBlank()) return new JsonObject();
+            JsonElement json = JsonParser.parseString(text);
+            if (!json.isJsonObject()) throw new ApiException(400, "Expected a JSON object");
+            return json.getAsJsonObject();
+        }
+    }
+
+    private static String field(JsonObject in, String name) {
+        if (!in.has(name) || in.get(name).isJsonNull()) throw new ApiException(400, "Missing " + name);
+        return in.get(name).getAsString();
+    }
+
+    private static Map<String, String> error(String message) { return Map.of("error", String.valueOf(message)); }
+}
@@ -1,13 +1,20 @@
 package ui;
 
+import database.AsyncDatabase;
+import database.CourseQuery;
+import database.DataEvent;
 import database.JsonDatabaseManager;
 import models.*;
 import javax.swing.*;
 import java.awt.*;
+import java.util.List;
 
 public class AdminDashboard extends JFrame {
-    private JsonDatabaseManager dbManager = JsonDatabaseManager.getInstance();
-    private DefaultListModel<Course> model = new DefaultListModel<>();
+    private static final long serialVersionUID = 1L;
+    private AsyncDatabase async = AsyncDatabase.getInstance();
+    private BusyIndicator busy = new BusyIndicator(this);
+    private DataEvent.Listener listener = this::changed;
+    private PagedCourseListModel model = new PagedCourseListModel(() -> CourseQuery.withStatus(CourseStatus.PENDING));
     private JList<Course> list = new JList<>(model);
 
     public AdminDashboard(Admin admin) {
@@ -19,6 +26,8 @@ public class AdminDashboard extends JFrame {
 
         JPanel top = new JPanel(new BorderLayout());
         JButton logout = new JButton("Logout");
+        JButton report = new JButton("Platform Report");
+        top.add(report, BorderLayout.WEST);
         top.add(new JLabel("Pending Courses", JLabel.CENTER), BorderLayout.CENTER);
         top.add(logout, BorderLayout.EAST);
         add(top, BorderLayout.NORTH);
@@ -28,13 +37,37 @@ public class AdminDashboard extends JFrame {
         JButton approve = new JButton("Approve");
         JButton reject = new JButton("Reject");
         btnPanel.add(approve); btnPanel.add(reject);
-        add(btnPanel, BorderLayout.SOUTH);
+        JPanel south = new JPanel(new BorderLayout());
+        south.add(btnPanel, BorderLayout.CENTER); south.add(busy, BorderLayout.SOUTH);
+        add(south, BorderLayout.SOUTH);
 
+        PagedCourseListModel.install(list);
         refresh();
+        JsonDatabaseManager.getInstance().addDataListener(listener);
 
         logout.addActionListener(e -> { new LoginFrame().setVisible(true); dispose(); });
-        approve.addActionListener(e -> { if (list.getSelectedValue() != null) { dbManager.approveCourse(list.getSelectedValue().getCourseId()); refresh(); } });
-        reject.addActionListener(e -> { if (list.getSelectedValue() != null) { dbManager.rejectCourse(list.getSelectedValue().getCourseId()); refresh(); } });
+        report.addActionListener(e -> new PlatformReportFrame(this).setVisible(true));
+        approve.addActionListener(e -> { if (list.getSelectedValue() != null) busy.run(async.approveCourse(list.getSelectedValue().getCourseId()), null); });
+        reject.addActionListener(e -> { if (list.getSelectedValue() != null) busy.run(async.rejectCourse(list.getSelectedValue().getCourseId()), null); });
+    }
+    @Override
+    public void dispose() {
+        JsonDatabaseManager.getInstance().removeDataListener(listener);
+        super.dispose();
+    }
+
+    /** The pending list only changes when a course is created, reviewed or deleted; anything else is at most a rename. */
+    private void changed(List<DataEvent> batch) {
+        for (DataEvent e : batch) {
+            switch (e.kind()) {
+                case COURSE_CREATED, COURSE_STATUS_CHANGED, COURSE_DELETED -> { refresh(); return; }
+                default -> { }
+            }
+        }
+        list.repaint();
+    }
+
+    private void refresh() {
+        busy.run(model.countTask(), n -> { list.clearSelection(); model.reset(n); });
     }
-    private void refresh() { model.clear(); for(Course c : dbManager.getPendingCourses()) model.addElement(c); }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Status-bar progress indicator for background database work. {@link #run} shows it (and a wait
+ * cursor on the owner) while any task is outstanding, then hands the result to a callback on the
+ * Event Dispatch Thread, or reports the failure in a dialog.
+ */
+class BusyIndicator extends JProgressBar {
+    private static final long serialVersionUID = 1L;
+    private final Component owner;
+    private int pending;
+
+    BusyIndicator(Component owner) {
+        this.owner = owner;
+        setIndeterminate(true);
+        setString("Working...");
+        setStringPainted(true);
+        setVisible(false);
+    }
+
+    /** Call on the EDT; {@code then} runs on the EDT once {@code task} succeeds. */
+    <T> void run(CompletableFuture<T> task, Consumer<? super T> then) { run(task, then, null); }
+
+    /** As above, and {@code otherwise} runs on the EDT once a failure has been reported, e.g. to re-enable a button. */
+    <T> void run(CompletableFuture<T> task, Consumer<? super T> then, Runnable otherwise) {
+        if (pending++ == 0) { setVisible(true); owner.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR)); }
+        task.whenComplete((value, error) -> SwingUtilities.invokeLater(() -> {
+            if (--pending == 0) { setVisible(false); owner.setCursor(Cursor.getDefaultCursor()); }
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                JOptionPane.showMessageDialog(owner, "Operation failed: " + cause.getMessage());
+                if (otherwise != null) otherwise.run();
+            } else if (then != null) then.accept(value);
+        }));
+    }
+}
@@ -7,6 +7,7 @@ import java.awt.*;
 import java.util.Map;
 
 public class ChartFrame extends JDialog {
+    private static final long serialVersionUID = 1L;
 
     public ChartFrame(JFrame parent, Course course) {
         super(parent, "Insights: " + course.getTitle(), true);
@@ -31,6 +32,7 @@ public class ChartFrame extends JDialog {
 
     // --- Custom Panel to Draw the Chart ---
     private static class BarChartPanel extends JPanel {
+        private static final long serialVersionUID = 1L;
         private double score;
         private double comp;
 
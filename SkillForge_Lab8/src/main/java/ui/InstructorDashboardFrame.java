@@ -1,5 +1,8 @@
 package ui;
 
+import database.AsyncDatabase;
+import database.CourseQuery;
+import database.DataEvent;
 import database.JsonDatabaseManager;
 import models.*;
 import javax.swing.*;
@@ -9,10 +12,26 @@ import java.util.List;
 import java.util.UUID;
 
 public class InstructorDashboardFrame extends JFrame {
+    private static final long serialVersionUID = 1L;
     private JsonDatabaseManager db = JsonDatabaseManager.getInstance();
+    private AsyncDatabase async = AsyncDatabase.getInstance();
+    private DataEvent.Listener listener = this::changed;
+    private BusyIndicator busy = new BusyIndicator(this);
+
+    /** The selected course's lessons and students, gathered off the EDT. */
+    private static final class CourseView {
+        final List<Lesson> lessons = new ArrayList<>();
+        final List<Student> students;
+
+        CourseView(JsonDatabaseManager db, String courseId) {
+            Course c = db.getCourseById(courseId);
+            if (c != null && c.getLessons() != null) lessons.addAll(c.getLessons());
+            students = db.getEnrolledStudents(courseId);
+        }
+    }
     private Instructor instructor;
-    private DefaultListModel<Course> cModel = new DefaultListModel<>();
-    private JList<Course> cList = new JList<>(cModel);
+    private PagedCourseListModel cModel;
+    private JList<Course> cList = new JList<>();
     private DefaultListModel<Lesson> lModel = new DefaultListModel<>();
     private JList<Lesson> lList = new JList<>(lModel);
     private DefaultListModel<Student> sModel = new DefaultListModel<>();
@@ -20,6 +39,8 @@ public class InstructorDashboardFrame extends JFrame {
 
     public InstructorDashboardFrame(Instructor i) {
         this.instructor = i;
+        this.cModel = new PagedCourseListModel(() -> CourseQuery.byInstructor(i.getUserId()));
+        cList.setModel(cModel);
         setTitle("Instructor - " + i.getUsername());
         setSize(900, 700);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -57,8 +78,21 @@ public class InstructorDashboardFrame extends JFrame {
         tabs.addTab("Insights", iPanel);
 
         add(new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, cPanel, tabs), BorderLayout.CENTER);
+        add(busy, BorderLayout.SOUTH);
 
+        cList.setCellRenderer(new DefaultListCellRenderer() {
+            public Component getListCellRendererComponent(JList<?> l, Object v, int i, boolean s, boolean f) {
+                super.getListCellRendererComponent(l,v,i,s,f);
+                Course c = (Course)v;
+                if(c == null) setText("Loading...");
+                else if(c.getStatus() == CourseStatus.REJECTED) setForeground(Color.RED);
+                else if(c.getStatus() == CourseStatus.PENDING) setForeground(Color.BLUE);
+                return this;
+            }
+        });
+        PagedCourseListModel.install(cList);
         refreshC();
+        db.addDataListener(listener);
         
         logout.addActionListener(e -> { new LoginFrame().setVisible(true); dispose(); });
         cList.addListSelectionListener(e -> { if(!e.getValueIsAdjusting()) refreshLS(); });
@@ -67,19 +101,19 @@ public class InstructorDashboardFrame extends JFrame {
         cAdd.addActionListener(e -> {
             String t = JOptionPane.showInputDialog("Title:");
             String d = JOptionPane.showInputDialog("Desc:");
-            if(t!=null && d!=null) { db.createCourse(t,d,i.getUserId()); refreshC(); }
+            if(t!=null && d!=null) busy.run(async.createCourse(t,d,i.getUserId()), null);
         });
         cEdit.addActionListener(e -> {
             Course c = cList.getSelectedValue();
             if(c!=null) { 
                 String t = JOptionPane.showInputDialog("Title:", c.getTitle());
                 String d = JOptionPane.showInputDialog("Desc:", c.getDescription());
-                if(t!=null) { db.updateCourse(c.getCourseId(), t, d); refreshC(); }
+                if(t!=null) busy.run(async.updateCourse(c.getCourseId(), t, d), null);
             }
         });
         cDel.addActionListener(e -> {
             Course c = cList.getSelectedValue();
-            if(c!=null && JOptionPane.showConfirmDialog(this,"Delete?")==0) { db.deleteCourse(c.getCourseId()); refreshC(); }
+            if(c!=null && JOptionPane.showConfirmDialog(this,"Delete?")==0) busy.run(async.deleteCourse(c.getCourseId()), null);
         });
         
         // --- LESSON ACTIONS (VIP VERSION: MANUAL QUIZ) ---
@@ -88,7 +122,7 @@ public class InstructorDashboardFrame extends JFrame {
         lDel.addActionListener(e -> {
             Course c = cList.getSelectedValue(); Lesson l = lList.getSelectedValue();
             if(c!=null && l!=null && JOptionPane.showConfirmDialog(this,"Delete Lesson?")==0) { 
-                db.deleteLesson(c.getCourseId(), l.getLessonId()); refreshLS(); 
+                busy.run(async.deleteLesson(c.getCourseId(), l.getLessonId()), null);
             }
         });
         
@@ -96,27 +130,53 @@ public class InstructorDashboardFrame extends JFrame {
     }
     
     // --- HELPER METHODS ---
-    private void refreshC() { 
-        cModel.clear(); 
-        for(Course c : db.getCoursesByInstructor(instructor.getUserId())) cModel.addElement(c); 
-        cList.setCellRenderer(new DefaultListCellRenderer() {
-            public Component getListCellRendererComponent(JList<?> l, Object v, int i, boolean s, boolean f) {
-                super.getListCellRendererComponent(l,v,i,s,f);
-                Course c = (Course)v;
-                if(c.getStatus() == CourseStatus.REJECTED) setForeground(Color.RED);
-                else if(c.getStatus() == CourseStatus.PENDING) setForeground(Color.BLUE);
-                return this;
+    @Override
+    public void dispose() {
+        db.removeDataListener(listener);
+        super.dispose();
+    }
+
+    /**
+     * Applies changes from any window: the course list is re-counted only when one of this
+     * instructor's courses appears or goes, and the selected course's lessons and students are
+     * patched in place. Renames and status changes only need a repaint.
+     */
+    private void changed(List<DataEvent> batch) {
+        Course selected = cList.getSelectedValue();
+        String sel = selected == null ? null : selected.getCourseId();
+        boolean courses = false, lessons = false;
+        for (DataEvent e : batch) {
+            switch (e.kind()) {
+                case COURSE_CREATED -> { Course c = db.getCourseById(e.courseId()); courses |= c != null && instructor.getUserId().equals(c.getInstructorId()); }
+                case COURSE_DELETED -> courses = true; // it may have been ours; re-counting is cheap
+                case LESSON_ADDED, LESSON_DELETED -> lessons |= e.courseId().equals(sel);
+                case ENROLLED, UNENROLLED -> {
+                    if (!e.courseId().equals(sel)) break;
+                    for (int k = 0; k < sModel.size(); k++) if (sModel.get(k).getUserId().equals(e.studentId())) { sModel.remove(k); break; }
+                    Student s = db.getStudentById(e.studentId());
+                    if (e.kind() == DataEvent.Kind.ENROLLED && s != null) sModel.addElement(s);
+                }
+                default -> { }
             }
-        });
+        }
+        if (courses) refreshC();
+        else if (lessons) { Lesson l = lList.getSelectedValue(); lModel.clear(); lModel.addAll(selected.getLessons()); lList.setSelectedValue(l, false); }
+        cList.repaint(); lList.repaint();
+    }
+
+    private void refreshC() { 
+        busy.run(cModel.countTask(), n -> { cList.clearSelection(); cModel.reset(n); });
     }
     private void refreshLS() {
         lModel.clear(); sModel.clear();
         Course c = cList.getSelectedValue();
         if(c!=null) {
             // RELOAD COURSE FROM DB TO GET LATEST DATA
-            Course refreshedCourse = db.getCourseById(c.getCourseId());
-            if(refreshedCourse.getLessons()!=null) for(Lesson l : refreshedCourse.getLessons()) lModel.addElement(l);
-            for(Student s : db.getEnrolledStudents(refreshedCourse.getCourseId())) sModel.addElement(s);
+            busy.run(async.read(d -> new CourseView(d, c.getCourseId())), v -> {
+                if (c != cList.getSelectedValue()) return;
+                lModel.addAll(v.lessons);
+                sModel.addAll(v.students);
+            });
         }
     }
 
@@ -139,8 +199,7 @@ public class InstructorDashboardFrame extends JFrame {
             if(JOptionPane.showConfirmDialog(this, "Create a Quiz for this lesson?", "Quiz", JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
                 q = buildQuiz();
             }
-            db.addLesson(c.getCourseId(), tField.getText(), cArea.getText(), q);
-            refreshLS();
+            busy.run(async.addLesson(c.getCourseId(), tField.getText(), cArea.getText(), q), null);
         }
     }
 
@@ -148,9 +207,12 @@ public class InstructorDashboardFrame extends JFrame {
         Course c = cList.getSelectedValue();
         Lesson l = lList.getSelectedValue();
         if(c==null || l==null) { JOptionPane.showMessageDialog(this, "Select a lesson"); return; }
-        
+        busy.run(async.getLessonContent(l.getLessonId()), content -> editLesson(c, l, content));
+    }
+
+    private void editLesson(Course c, Lesson l, String content) {
         JTextField tField = new JTextField(l.getTitle());
-        JTextArea cArea = new JTextArea(l.getContent(), 5, 20);
+        JTextArea cArea = new JTextArea(content, 5, 20);
         JPanel p = new JPanel(new GridLayout(0, 1));
         p.add(new JLabel("Title:")); p.add(tField);
         p.add(new JLabel("Content:")); p.add(new JScrollPane(cArea));
@@ -165,8 +227,7 @@ public class InstructorDashboardFrame extends JFrame {
             // If q is null, it means we don't change the quiz, UNLESS we explicitly deleted it.
             // For simplicity in this lab: If they say "No" to replacing, we pass null, and DB manager keeps old quiz.
             // If they say "Yes" and build a new one, we pass the new one.
-            db.updateLesson(c.getCourseId(), l.getLessonId(), tField.getText(), cArea.getText(), q);
-            refreshLS();
+            busy.run(async.updateLesson(c.getCourseId(), l.getLessonId(), tField.getText(), cArea.getText(), q), null);
         }
     }
 
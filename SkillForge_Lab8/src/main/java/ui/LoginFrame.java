@@ -6,6 +6,7 @@ import javax.swing.*;
 import java.awt.*;
 
 public class LoginFrame extends JFrame {
+    private static final long serialVersionUID = 1L;
     private JsonDatabaseManager dbManager = JsonDatabaseManager.getInstance();
     private JTextField emailField;
     private JPasswordField passwordField;
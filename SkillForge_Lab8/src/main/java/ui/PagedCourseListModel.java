@@ -0,0 +1,99 @@
+package ui;
+
+import database.AsyncDatabase;
+import database.CourseQuery;
+import database.JsonDatabaseManager;
+import models.Course;
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * List model over a course query that only holds the pages the list has actually shown. A
+ * refresh re-counts the matches ({@link #countTask}) and {@link #reset} then fires one change
+ * event; rows are fetched a page at a time on the I/O thread the first time they are painted
+ * and render as "Loading..." until then. Unsorted queries page straight off the course
+ * indexes, so refreshing and scrolling cost the same whatever the catalog size.
+ */
+class PagedCourseListModel extends AbstractListModel<Course> {
+    private static final long serialVersionUID = 1L;
+    private static final int PAGE_SIZE = 100;
+    private static final int CACHED_PAGES = 32;
+
+    private final Supplier<CourseQuery> query;
+    private final Function<JsonDatabaseManager, Integer> count;
+    private final AsyncDatabase async = AsyncDatabase.getInstance();
+    private final Set<Integer> loading = new HashSet<>();
+    private final Map<Integer, List<Course>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<Integer, List<Course>> e) { return size() > CACHED_PAGES; }
+    };
+    private int size;
+    private int generation;
+
+    /** {@code query} must return a fresh query each time, since paging mutates it. */
+    PagedCourseListModel(Supplier<CourseQuery> query) { this(query, d -> d.countCourses(query.get())); }
+
+    /** With a cheaper way to count than running a filtered query over every candidate. */
+    PagedCourseListModel(Supplier<CourseQuery> query, Function<JsonDatabaseManager, Integer> count) { this.query = query; this.count = count; }
+
+    /** Counts the matching courses on the I/O thread; pass the result to {@link #reset}. */
+    CompletableFuture<Integer> countTask() { return async.read(count); }
+
+    /** Drops every cached page and takes the new size, firing a single change event. */
+    void reset(int newSize) {
+        int old = size;
+        size = newSize;
+        generation++;
+        pages.clear();
+        loading.clear();
+        if (Math.max(old, newSize) > 0) fireContentsChanged(this, 0, Math.max(old, newSize) - 1);
+    }
+
+    @Override
+    public int getSize() { return size; }
+
+    @Override
+    public Course getElementAt(int index) {
+        int p = index / PAGE_SIZE;
+        List<Course> page = pages.get(p);
+        if (page == null) { load(p); return null; }
+        int i = index % PAGE_SIZE;
+        return i < page.size() ? page.get(i) : null;
+    }
+
+    private void load(int p) {
+        if (!loading.add(p)) return;
+        int gen = generation;
+        async.read(d -> d.queryCourses(query.get().page(p * PAGE_SIZE, PAGE_SIZE))).whenComplete((page, error) -> SwingUtilities.invokeLater(() -> {
+            if (gen != generation) return;
+            loading.remove(p);
+            if (page == null) return; // failed; the next paint retries
+            pages.put(p, page);
+            int from = p * PAGE_SIZE, to = Math.min(size, from + PAGE_SIZE) - 1;
+            if (to >= from) fireContentsChanged(this, from, to);
+        }));
+    }
+
+    /**
+     * Sets fixed cell sizes so the list never measures every row (which would load every page)
+     * and, if the list has no renderer of its own, one that shows "Loading..." for rows not yet fetched.
+     */
+    static void install(JList<Course> list) {
+        if (list.getCellRenderer() == null || list.getCellRenderer().getClass() == DefaultListCellRenderer.UIResource.class) {
+            list.setCellRenderer(new DefaultListCellRenderer() {
+                public Component getListCellRendererComponent(JList<?> l, Object v, int i, boolean s, boolean f) {
+                    return super.getListCellRendererComponent(l, v == null ? "Loading..." : v, i, s, f);
+                }
+            });
+        }
+        list.setFixedCellHeight(new DefaultListCellRenderer().getListCellRendererComponent(list, "Loading...", 0, false, false).getPreferredSize().height);
+        list.setFixedCellWidth(100); // narrower than any viewport, so rows stretch to the list's width
+    }
+}
@@ -0,0 +1,92 @@
+package ui;
+
+import database.AsyncDatabase;
+import database.PlatformReport;
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+public class PlatformReportFrame extends JDialog {
+    private static final long serialVersionUID = 1L;
+    private static final String[] COLUMNS = {"Name", "Courses", "Enrolled", "Completion %", "Avg Score", "Certificates"};
+    private static final Class<?>[] TYPES = {String.class, Integer.class, Integer.class, Double.class, Double.class, Integer.class};
+
+    private PlatformReport report;
+    private DefaultTableModel courseModel = model();
+    private DefaultTableModel instructorModel = model();
+    private JLabel status = new JLabel(" ");
+    private BusyIndicator busy = new BusyIndicator(this);
+
+    public PlatformReportFrame(JFrame parent) {
+        super(parent, "Platform Report", true);
+        setSize(800, 500);
+        setLocationRelativeTo(parent);
+        setLayout(new BorderLayout());
+
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Courses", new JScrollPane(table(courseModel)));
+        tabs.addTab("Instructors", new JScrollPane(table(instructorModel)));
+        add(tabs, BorderLayout.CENTER);
+
+        JPanel bottom = new JPanel(new BorderLayout());
+        JPanel btnPanel = new JPanel();
+        JButton refresh = new JButton("Refresh");
+        JButton export = new JButton("Export CSV");
+        btnPanel.add(refresh); btnPanel.add(export);
+        bottom.add(status, BorderLayout.WEST);
+        bottom.add(busy, BorderLayout.CENTER);
+        bottom.add(btnPanel, BorderLayout.EAST);
+        add(bottom, BorderLayout.SOUTH);
+
+        refresh.addActionListener(e -> refresh());
+        export.addActionListener(e -> export());
+        refresh();
+    }
+
+    /** Read-only, and typed per column so the row sorter orders numbers numerically. */
+    private static DefaultTableModel model() {
+        return new DefaultTableModel(COLUMNS, 0) {
+            @Override public boolean isCellEditable(int r, int c) { return false; }
+            @Override public Class<?> getColumnClass(int c) { return TYPES[c]; }
+        };
+    }
+
+    private static JTable table(DefaultTableModel model) {
+        JTable t = new JTable(model);
+        t.setAutoCreateRowSorter(true);
+        return t;
+    }
+
+    private void refresh() {
+        busy.run(AsyncDatabase.getInstance().getPlatformReport(), r -> {
+            report = r;
+            fill(courseModel, report.getCourses());
+            fill(instructorModel, report.getInstructors());
+            status.setText(" " + report.getCourses().size() + " courses, " + report.getInstructors().size() + " instructors (" + report.getElapsedMillis() + " ms)");
+        });
+    }
+
+    private static void fill(DefaultTableModel model, List<? extends PlatformReport.Row> rows) {
+        model.setRowCount(0);
+        for (PlatformReport.Row r : rows) {
+            model.addRow(new Object[] { r.getName(), r.getCourseCount(), r.getEnrolled(),
+                    Math.round(r.getCompletionRate() * 10) / 10.0, Math.round(r.getAverageScore() * 10) / 10.0, r.getCertificates() });
+        }
+    }
+
+    private void export() {
+        if (report == null) return;
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("platform-report.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        try {
+            report.exportCsv(chooser.getSelectedFile().toPath());
+            JOptionPane.showMessageDialog(this, "Report exported.");
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Export failed: " + ex.getMessage());
+        }
+    }
+}
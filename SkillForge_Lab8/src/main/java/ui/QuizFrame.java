@@ -1,27 +1,32 @@
 package ui;
-import database.JsonDatabaseManager;
+import database.AsyncDatabase;
 import models.*;
 import javax.swing.*;
 import java.awt.*;
-import java.util.ArrayList;
+import java.util.Arrays;
 
 public class QuizFrame extends JDialog {
-    private int idx = 0, score = 0;
+    private static final long serialVersionUID = 1L;
+    private int idx = 0;
     private Quiz quiz;
     private JLabel qLabel = new JLabel("", JLabel.CENTER);
     private JPanel optPanel = new JPanel();
-    private java.util.List<Integer> answers;
+    private int[] answers;
 
     public QuizFrame(JFrame p, Student s, Course c, Lesson l) {
         super(p, "Quiz", true);
         this.quiz = l.getQuiz();
-        this.answers = new ArrayList<>(java.util.Collections.nCopies(quiz.getQuestions().size(), -1));
+        this.answers = new int[quiz.getQuestions().size()];
+        Arrays.fill(answers, -1);
         setSize(500, 400); setLocationRelativeTo(p); setLayout(new BorderLayout());
         
         JButton next = new JButton("Next");
         add(qLabel, BorderLayout.NORTH);
         add(new JScrollPane(optPanel), BorderLayout.CENTER);
-        add(next, BorderLayout.SOUTH);
+        BusyIndicator busy = new BusyIndicator(this);
+        JPanel south = new JPanel(new BorderLayout());
+        south.add(busy, BorderLayout.NORTH); south.add(next, BorderLayout.SOUTH);
+        add(south, BorderLayout.SOUTH);
         optPanel.setLayout(new BoxLayout(optPanel, BoxLayout.Y_AXIS));
 
         loadQ(0, next);
@@ -29,14 +34,14 @@ public class QuizFrame extends JDialog {
             int sel = -1;
             for(int i=0; i<optPanel.getComponentCount(); i++) if(((JRadioButton)optPanel.getComponent(i)).isSelected()) sel = i;
             if(sel == -1) return;
-            answers.set(idx, sel);
+            answers[idx] = sel;
             if(++idx < quiz.getQuestions().size()) loadQ(idx, next);
             else {
-                for(int i=0; i<quiz.getQuestions().size(); i++) if(answers.get(i) == quiz.getQuestions().get(i).getCorrectOptionIndex()) score++;
-                int pct = (int)(((double)score/quiz.getQuestions().size())*100);
-                JsonDatabaseManager.getInstance().submitQuiz(s.getUserId(), c.getCourseId(), l.getLessonId(), pct);
-                JOptionPane.showMessageDialog(this, "Score: " + pct + "%");
-                dispose();
+                next.setEnabled(false);
+                busy.run(AsyncDatabase.getInstance().submitQuizAnswers(s.getUserId(), c.getCourseId(), l.getLessonId(), answers), pct -> {
+                    JOptionPane.showMessageDialog(this, "Score: " + pct + "%");
+                    dispose();
+                }, () -> next.setEnabled(true)); // let the student submit again
             }
         });
     }
@@ -6,6 +6,7 @@ import java.awt.*;
 import java.util.regex.Pattern;
 
 public class SignupFrame extends JFrame {
+    private static final long serialVersionUID = 1L;
     private JsonDatabaseManager dbManager = JsonDatabaseManager.getInstance();
     private JTextField userField, emailField;
     private JPasswordField passField;
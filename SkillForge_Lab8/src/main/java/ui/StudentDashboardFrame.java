@@ -1,16 +1,30 @@
 package ui;
 
+import database.AsyncDatabase;
+import database.CourseQuery;
+import database.DataEvent;
 import database.JsonDatabaseManager;
 import models.*;
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.util.List;
 
 public class StudentDashboardFrame extends JFrame {
+    private static final long serialVersionUID = 1L;
     private JsonDatabaseManager db = JsonDatabaseManager.getInstance();
+    private AsyncDatabase async = AsyncDatabase.getInstance();
     private Student student;
-    private DefaultListModel<Course> allModel = new DefaultListModel<>();
+    // Available = approved minus enrolled, so it can be counted from the index without the filter
+    private PagedCourseListModel allModel = new PagedCourseListModel(
+            () -> CourseQuery.withStatus(CourseStatus.APPROVED).filter(c -> !db.isEnrolled(student.getUserId(), c.getCourseId())),
+            d -> d.countCourses(CourseQuery.withStatus(CourseStatus.APPROVED)) - d.getEnrolledCourses(student.getUserId()).size());
     private DefaultListModel<Course> myModel = new DefaultListModel<>();
+    private DefaultListModel<Course> searchModel = new DefaultListModel<>();
+    private JTextField searchField = new JTextField();
+    private int searchGeneration;
+    private Timer searchDelay = new Timer(250, e -> search()); // waits for a pause in typing
     private DefaultListModel<Lesson> lModel = new DefaultListModel<>();
     private DefaultListModel<Certificate> certModel = new DefaultListModel<>();
     private JList<Course> allList = new JList<>(allModel);
@@ -18,6 +32,21 @@ public class StudentDashboardFrame extends JFrame {
     private JList<Lesson> lList = new JList<>(lModel);
     private JTextArea content = new JTextArea();
     private JButton takeQuiz = new JButton("Take Quiz"), unmark = new JButton("Unmark");
+    private BusyIndicator busy = new BusyIndicator(this);
+    private DataEvent.Listener listener = this::changed;
+
+    /** What the dashboard shows, gathered off the EDT. */
+    private static final class View {
+        final Student student;
+        final List<Course> mine;
+        final List<Certificate> certificates;
+
+        View(JsonDatabaseManager db, String studentId) {
+            student = db.getStudentById(studentId);
+            mine = db.getEnrolledCourses(studentId);
+            certificates = db.getCertificates(studentId);
+        }
+    }
 
     public StudentDashboardFrame(Student s) {
         this.student = s;
@@ -31,6 +60,9 @@ public class StudentDashboardFrame extends JFrame {
         
         JPanel p1 = new JPanel(new BorderLayout());
         JButton enroll = new JButton("Enroll");
+        JPanel searchPanel = new JPanel(new BorderLayout(5, 0));
+        searchPanel.add(new JLabel("Search:"), BorderLayout.WEST); searchPanel.add(searchField, BorderLayout.CENTER);
+        p1.add(searchPanel, BorderLayout.NORTH);
         p1.add(new JScrollPane(allList), BorderLayout.CENTER); p1.add(enroll, BorderLayout.SOUTH);
         tabs.addTab("Available", p1);
 
@@ -49,31 +81,49 @@ public class StudentDashboardFrame extends JFrame {
         JButton logout = new JButton("Logout");
         add(logout, BorderLayout.NORTH);
         add(tabs, BorderLayout.CENTER);
+        add(busy, BorderLayout.SOUTH);
+
+        PagedCourseListModel.install(allList);
+        lList.setCellRenderer(new DefaultListCellRenderer() {
+            public Component getListCellRendererComponent(JList<?> l, Object v, int i, boolean s, boolean f) {
+                super.getListCellRendererComponent(l,v,i,s,f);
+                if (student.isLessonCompleted(((Lesson)v).getLessonId())) { setText(((Lesson)v).getTitle() + " (DONE)"); setForeground(Color.GRAY); }
+                return this;
+            }
+        });
+        myList.setCellRenderer(new DefaultListCellRenderer() {
+            public Component getListCellRendererComponent(JList<?> l, Object v, int i, boolean s, boolean f) {
+                super.getListCellRendererComponent(l,v,i,s,f);
+                Course c = (Course) v;
+                setText(c.getTitle() + " - " + db.getCourseProgress(student.getUserId(), c.getCourseId()) + "%");
+                return this;
+            }
+        });
 
         refresh();
+        db.addDataListener(listener);
 
+        searchDelay.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { searchDelay.restart(); }
+            public void removeUpdate(DocumentEvent e) { searchDelay.restart(); }
+            public void changedUpdate(DocumentEvent e) { searchDelay.restart(); }
+        });
         logout.addActionListener(e -> { new LoginFrame().setVisible(true); dispose(); });
         enroll.addActionListener(e -> { 
             if(allList.getSelectedValue()!=null) { 
-                db.enrollStudentInCourse(student.getUserId(), allList.getSelectedValue().getCourseId()); 
-                refresh(); 
+                busy.run(async.enrollStudentInCourse(student.getUserId(), allList.getSelectedValue().getCourseId()), null);
             } 
         });
         
-        myList.addListSelectionListener(e -> {
-            if(!e.getValueIsAdjusting()) {
-                lModel.clear();
-                Course c = myList.getSelectedValue();
-                if(c!=null && c.getLessons()!=null) for(Lesson l : c.getLessons()) lModel.addElement(l);
-            }
-        });
+        myList.addListSelectionListener(e -> { if(!e.getValueIsAdjusting()) showLessons(); });
         
         lList.addListSelectionListener(e -> {
             if(!e.getValueIsAdjusting()) {
                 Lesson l = lList.getSelectedValue();
                 content.setText(null);
                 if(l!=null) {
-                    content.setText(l.getContent());
+                    busy.run(async.getLessonContent(l.getLessonId()), text -> { if (l == lList.getSelectedValue()) content.setText(text); });
                     boolean done = student.isLessonCompleted(l.getLessonId());
                     takeQuiz.setEnabled(l.getQuiz()!=null);
                     unmark.setEnabled(done);
@@ -85,32 +135,111 @@ public class StudentDashboardFrame extends JFrame {
             Course c = myList.getSelectedValue(); Lesson l = lList.getSelectedValue();
             if(c!=null && l!=null && l.getQuiz() != null) {
                 new QuizFrame(this, student, c, l).setVisible(true);
-                refresh();
             }
         });
         
         unmark.addActionListener(e -> {
             Lesson l = lList.getSelectedValue();
             if(l!=null && JOptionPane.showConfirmDialog(this, "Reset progress?", "Confirm", JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
-                db.unmarkLessonAsCompleted(student.getUserId(), l.getLessonId());
-                refresh();
+                busy.run(async.unmarkLessonAsCompleted(student.getUserId(), l.getLessonId()), null);
             }
         });
     }
 
-    private void refresh() {
-        this.student = db.getStudentById(student.getUserId());
-        allModel.clear(); myModel.clear(); certModel.clear();
-        for(Course c : db.getApprovedCourses()) if(!student.getEnrolledCourses().contains(c.getCourseId())) allModel.addElement(c);
-        for(Course c : db.getEnrolledCourses(student.getUserId())) myModel.addElement(c);
-        for(Certificate c : db.getCertificates(student.getUserId())) certModel.addElement(c);
-        
-        lList.setCellRenderer(new DefaultListCellRenderer() {
-            public Component getListCellRendererComponent(JList<?> l, Object v, int i, boolean s, boolean f) {
-                super.getListCellRendererComponent(l,v,i,s,f);
-                if (student.isLessonCompleted(((Lesson)v).getLessonId())) { setText(((Lesson)v).getTitle() + " (DONE)"); setForeground(Color.GRAY); }
-                return this;
+    @Override
+    public void dispose() {
+        db.removeDataListener(listener);
+        super.dispose();
+    }
+
+    private void showLessons() {
+        lModel.clear();
+        Course c = myList.getSelectedValue();
+        if(c!=null && c.getLessons()!=null) lModel.addAll(c.getLessons());
+    }
+
+    /**
+     * Applies changes from any window to just the parts they touch: the available list is
+     * re-counted only when a course enters or leaves it, and enrollments, lessons and
+     * certificates update their own list in place. My courses shows only approved courses, so a
+     * status change can take one out or bring it back. Scores only need a repaint, since the
+     * lists show the live models.
+     */
+    private void changed(List<DataEvent> batch) {
+        String sid = student.getUserId();
+        boolean available = false, lessons = false, certificates = false;
+        for (DataEvent e : batch) {
+            boolean mine = sid.equals(e.studentId());
+            switch (e.kind()) {
+                case COURSE_STATUS_CHANGED, COURSE_DELETED -> { available = true; syncMine(e.courseId()); }
+                case COURSE_UPDATED -> syncMine(e.courseId());
+                case ENROLLED, UNENROLLED -> {
+                    if (!mine) break;
+                    available = true;
+                    syncMine(e.courseId());
+                }
+                case LESSON_ADDED, LESSON_DELETED -> lessons |= myList.getSelectedValue() != null && myList.getSelectedValue().getCourseId().equals(e.courseId());
+                case CERTIFICATE_ISSUED -> certificates |= mine;
+                default -> { }
             }
+        }
+        if (available) refreshAvailable();
+        if (lessons) showLessons();
+        if (certificates) busy.run(async.read(d -> d.getCertificates(sid)), certs -> { certModel.clear(); certModel.addAll(certs); });
+        Lesson l = lList.getSelectedValue();
+        unmark.setEnabled(l != null && student.isLessonCompleted(l.getLessonId()));
+        allList.repaint(); myList.repaint(); lList.repaint();
+    }
+
+    /** Brings the course's entry in my courses in line with the database: added, replaced or removed. */
+    private void syncMine(String courseId) {
+        Course c = db.getCourseById(courseId);
+        boolean shown = c != null && c.getStatus() == CourseStatus.APPROVED && db.isEnrolled(student.getUserId(), courseId);
+        int i = indexOfMine(courseId);
+        if (!shown) { if (i >= 0) myModel.remove(i); }
+        else if (i < 0) myModel.addElement(c);
+        else myModel.set(i, c); // fires a change, so a new title is redrawn
+    }
+
+    private int indexOfMine(String courseId) {
+        for (int i = 0; i < myModel.size(); i++) {
+            if (myModel.get(i).getCourseId().equals(courseId)) return i;
+        }
+        return -1;
+    }
+
+    private void refreshAvailable() {
+        busy.run(allModel.countTask(), n -> { allList.clearSelection(); allModel.reset(n); });
+        if (!searchField.getText().isBlank()) search();
+    }
+
+    /** Searches once typing pauses; an empty box goes back to the full paged list. Answers to older searches are dropped. */
+    private void search() {
+        int gen = ++searchGeneration;
+        String text = searchField.getText();
+        if (text.isBlank()) {
+            if (allList.getModel() != allModel) { allList.clearSelection(); allList.setModel(allModel); }
+            return;
+        }
+        String sid = student.getUserId();
+        async.searchCourses(text, CourseStatus.APPROVED, c -> !db.isEnrolled(sid, c.getCourseId()), 100)
+                .whenComplete((found, error) -> SwingUtilities.invokeLater(() -> {
+                    if (gen != searchGeneration || found == null) return;
+                    allList.clearSelection();
+                    searchModel.clear();
+                    searchModel.addAll(found);
+                    if (allList.getModel() != searchModel) allList.setModel(searchModel);
+                }));
+    }
+
+    private void refresh() {
+        refreshAvailable();
+        busy.run(async.read(d -> new View(d, student.getUserId())), v -> {
+            if (v.student != null) this.student = v.student;
+            myModel.clear(); certModel.clear();
+            myModel.addAll(v.mine);
+            certModel.addAll(v.certificates);
+            lList.repaint();
         });
     }
 }
\ No newline at end of file
@@ -0,0 +1,202 @@
+package database;
+
+import models.Course;
+import models.Lesson;
+import models.Student;
+import models.User;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs concurrent enroll, unenroll and submitQuiz calls against one {@link JsonDatabaseManager}
+ * while readers walk the lists and aggregates, then checks nothing was lost: every worker owns its
+ * students, so the expected final state is known exactly even though all of them share the courses.
+ * Any exception in a worker or reader, ConcurrentModificationException included, fails the test.
+ * The state is checked in memory and again after reopening the data directory. Writers on
+ * different records must also really run side by side, commits included.
+ */
+class ConcurrencyStressTest {
+    private static final int WORKERS = 8, STUDENTS_PER_WORKER = 5, COURSES = 6, LESSONS = 3, OPERATIONS = 300;
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"journal", "json", "sharded", "binary"})
+    void concurrentEnrollUnenrollAndQuizLoseNothing(String storage) throws Exception {
+        JsonDatabaseManager db = TestDatabases.open(dir, storage);
+        String instructor = TestDatabases.register(db, "teacher", "Instructor").getUserId();
+        List<Course> courses = new ArrayList<>();
+        for (int c = 0; c < COURSES; c++) courses.add(TestDatabases.approvedCourse(db, instructor, "Course " + c, LESSONS));
+        List<List<String>> owned = new ArrayList<>();
+        for (int w = 0; w < WORKERS; w++) {
+            List<String> mine = new ArrayList<>();
+            for (int s = 0; s < STUDENTS_PER_WORKER; s++) mine.add(TestDatabases.register(db, "s" + w + "_" + s, "Student").getUserId());
+            owned.add(mine);
+        }
+
+        Map<String, Set<String>> expectedCourses = new HashMap<>();
+        Map<String, Map<String, Integer>> expectedScores = new HashMap<>();
+        for (List<String> mine : owned) for (String s : mine) { expectedCourses.put(s, new HashSet<>()); expectedScores.put(s, new HashMap<>()); }
+
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < WORKERS; w++) {
+            List<String> mine = owned.get(w);
+            SplittableRandom r = new SplittableRandom(w);
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        String s = mine.get(r.nextInt(mine.size()));
+                        Course c = courses.get(r.nextInt(courses.size()));
+                        if (r.nextInt(3) == 0) {
+                            Lesson l = c.getLessons().get(r.nextInt(LESSONS));
+                            int score = r.nextInt(101);
+                            db.submitQuiz(s, c.getCourseId(), l.getLessonId(), score);
+                            expectedScores.get(s).merge(l.getLessonId(), score, Math::max);
+                        } else if (expectedCourses.get(s).remove(c.getCourseId())) {
+                            db.unenrollStudentFromCourse(s, c.getCourseId());
+                        } else {
+                            db.enrollStudentInCourse(s, c.getCourseId());
+                            expectedCourses.get(s).add(c.getCourseId());
+                        }
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            }, "stress-writer-" + w));
+        }
+        for (int n = 0; n < 2; n++) {
+            SplittableRandom r = new SplittableRandom(100 + n);
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    while (!done.get()) {
+                        Course c = courses.get(r.nextInt(courses.size()));
+                        for (String id : c.getStudents()) db.isEnrolled(id, c.getCourseId());
+                        db.getEnrolledStudents(c.getCourseId());
+                        db.getCourseStatistics(c.getCourseId());
+                        db.getCourseProgress(owned.get(0).get(0), c.getCourseId());
+                        for (Student s : db.getAllStudents()) { db.getEnrolledCourses(s.getUserId()); s.getQuizScores().entrySet().forEach(e -> { }); }
+                        db.getPlatformReport();
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            }, "stress-reader-" + n));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread t : threads.subList(0, WORKERS)) t.join();
+        done.set(true);
+        for (Thread t : threads) t.join();
+
+        try {
+            if (!failures.isEmpty()) throw new AssertionError("A worker failed", failures.peek());
+            assertConsistent(db, courses, expectedCourses, expectedScores);
+        } finally {
+            db.close();
+        }
+
+        JsonDatabaseManager reopened = TestDatabases.open(dir, storage);
+        List<Course> reloaded = new ArrayList<>();
+        for (Course c : courses) reloaded.add(reopened.getCourseById(c.getCourseId()));
+        try {
+            assertConsistent(reopened, reloaded, expectedCourses, expectedScores);
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"journal", "json", "sharded", "binary"})
+    @SuppressWarnings("try") // the holder keeps its lock without naming it
+    void writersOnDifferentRecordsOverlap(String storage) throws Exception {
+        JsonDatabaseManager db = TestDatabases.open(dir, storage);
+        EntityLocks locks = db.locks();
+        String instructor = TestDatabases.register(db, "teacher", "Instructor").getUserId();
+        Course c = TestDatabases.approvedCourse(db, instructor, "Shared", 1);
+        String held = TestDatabases.register(db, "held", "Student").getUserId();
+        String free = null;
+        for (int i = 0; free == null || locks.stripe(free) == locks.stripe(held); i++) free = TestDatabases.register(db, "free" + i, "Student").getUserId();
+        assertNotEquals(locks.stripe(held), locks.stripe(free));
+
+        CountDownLatch locked = new CountDownLatch(1), release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try (EntityLocks.Held h = locks.entities(held)) {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "stripe-holder");
+        holder.start();
+        locked.await();
+        String student = free;
+        try {
+            // A writer mid-change on one student must not hold up a write, or its commit, on another
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> db.submitQuiz(student, c.getCourseId(), c.getLessons().get(0).getLessonId(), 80));
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+        try {
+            assertEquals(80, db.getStudentById(free).getQuizScores().get(c.getLessons().get(0).getLessonId()));
+        } finally {
+            db.close();
+        }
+        JsonDatabaseManager reopened = TestDatabases.open(dir, storage);
+        try {
+            assertEquals(80, reopened.getStudentById(free).getQuizScores().get(c.getLessons().get(0).getLessonId()));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    private static void assertConsistent(JsonDatabaseManager db, List<Course> courses, Map<String, Set<String>> expectedCourses,
+                                         Map<String, Map<String, Integer>> expectedScores) {
+        Map<String, Set<String>> expectedStudents = new HashMap<>();
+        for (Course c : courses) expectedStudents.put(c.getCourseId(), new HashSet<>());
+        for (Map.Entry<String, Set<String>> e : expectedCourses.entrySet()) {
+            Student s = db.getStudentById(e.getKey());
+            List<String> listed = s.getEnrolledCourses();
+            assertEquals(e.getValue(), new HashSet<>(listed), "enrolled courses of " + s.getUsername());
+            assertEquals(listed.size(), new HashSet<>(listed).size(), "duplicate enrollment for " + s.getUsername());
+            for (String c : e.getValue()) {
+                assertTrue(db.isEnrolled(s.getUserId(), c), "index lost an enrollment of " + s.getUsername());
+                expectedStudents.get(c).add(s.getUserId());
+            }
+            assertEquals(expectedScores.get(e.getKey()), new HashMap<>(s.getQuizScores()), "quiz scores of " + s.getUsername());
+        }
+        for (Course c : courses) {
+            List<String> listed = c.getStudents();
+            assertEquals(expectedStudents.get(c.getCourseId()), new HashSet<>(listed), "students of " + c.getTitle());
+            assertEquals(listed.size(), new HashSet<>(listed).size(), "duplicate student in " + c.getTitle());
+        }
+        assertEquals(List.of(), db.verifyCourseStatistics(), "course statistics drifted");
+        for (User u : db.getAllStudents()) assertTrue(expectedCourses.containsKey(u.getUserId()));
+    }
+}
@@ -0,0 +1,34 @@
+package database;
+
+import models.Course;
+import models.CourseStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CourseIndexTest {
+    private static Course course(String id, String instructor) {
+        return new Course(id, "Title " + id, "", instructor, null, null, CourseStatus.PENDING);
+    }
+
+    @Test
+    void bucketsKeepCatalogOrderAcrossStatusChanges() {
+        CourseIndex index = new CourseIndex();
+        Course a = course("a", "i1"), b = course("b", "i2"), c = course("c", "i1");
+        for (Course x : List.of(a, b, c)) index.add(x);
+
+        for (Course x : List.of(c, a)) { x.setStatus(CourseStatus.APPROVED); index.statusChanged(x, CourseStatus.PENDING); }
+        assertEquals(List.of(a, c), new ArrayList<>(index.withStatus(CourseStatus.APPROVED)));
+        assertEquals(List.of(a, c), new ArrayList<>(index.byInstructorAndStatus("i1", CourseStatus.APPROVED)));
+        assertEquals(List.of(b), new ArrayList<>(index.withStatus(CourseStatus.PENDING)));
+
+        index.remove(a);
+        Course d = course("d", "i1");
+        index.add(d);
+        assertEquals(List.of(c, d), new ArrayList<>(index.byInstructor("i1")));
+        assertEquals(List.of(c), new ArrayList<>(index.withStatus(CourseStatus.APPROVED)));
+    }
+}
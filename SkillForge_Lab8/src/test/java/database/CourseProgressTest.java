@@ -0,0 +1,72 @@
+package database;
+
+import models.Course;
+import models.Lesson;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Completion counters follow every score and lesson change, and issue exactly one certificate. */
+class CourseProgressTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void progressTracksScoresQuizzesAndLessons() {
+        JsonDatabaseManager db = TestDatabases.open(dir, "journal");
+        String instructor = TestDatabases.register(db, "teacher", "Instructor").getUserId();
+        Course c = TestDatabases.approvedCourse(db, instructor, "C", 4);
+        String cId = c.getCourseId();
+        db.addLesson(cId, "Reading", "No quiz yet", null); // not required until it has a quiz
+        String s = TestDatabases.register(db, "pupil", "Student").getUserId();
+        db.enrollStudentInCourse(s, cId);
+        String l0 = c.getLessons().get(0).getLessonId(), l1 = c.getLessons().get(1).getLessonId();
+        String l2 = c.getLessons().get(2).getLessonId(), l3 = c.getLessons().get(3).getLessonId();
+        String reading = c.getLessons().get(4).getLessonId();
+        assertEquals(0, db.getCourseProgress(s, cId));
+
+        db.submitQuiz(s, cId, l0, 40); // below the pass mark
+        assertEquals(0, db.getCourseProgress(s, cId));
+        db.submitQuiz(s, cId, l0, 80);
+        assertEquals(25, db.getCourseProgress(s, cId));
+        db.submitQuiz(s, cId, l0, 10); // best score stands
+        assertEquals(25, db.getCourseProgress(s, cId));
+        db.unmarkLessonAsCompleted(s, l0);
+        assertEquals(0, db.getCourseProgress(s, cId));
+        db.submitQuiz(s, cId, l0, 80);
+        db.submitQuiz(s, cId, l1, 50);
+        assertEquals(50, db.getCourseProgress(s, cId));
+
+        db.submitQuiz(s, cId, reading, 90);
+        assertEquals(50, db.getCourseProgress(s, cId));
+        db.updateLesson(cId, reading, "Reading", "Now quizzed", TestDatabases.quiz()); // the earlier pass counts
+        assertEquals(60, db.getCourseProgress(s, cId));
+
+        db.deleteLesson(cId, l3);
+        assertEquals(75, db.getCourseProgress(s, cId));
+        assertEquals(0, db.getCertificates(s).size());
+        db.submitQuiz(s, cId, l2, 70);
+        assertEquals(100, db.getCourseProgress(s, cId));
+        assertEquals(1, db.getCertificates(s).size());
+        db.submitQuiz(s, cId, l2, 95);
+        assertEquals(1, db.getCertificates(s).size());
+        db.close();
+
+        JsonDatabaseManager reopened = TestDatabases.open(dir, "journal");
+        try {
+            assertEquals(100, reopened.getCourseProgress(s, cId));
+            reopened.addLesson(cId, "Extra", "More", TestDatabases.quiz());
+            assertEquals(80, reopened.getCourseProgress(s, cId));
+            Lesson extra = reopened.getCourseById(cId).getLessons().get(4);
+            reopened.submitQuiz(s, cId, extra.getLessonId(), 100);
+            assertEquals(100, reopened.getCourseProgress(s, cId));
+            assertEquals(1, reopened.getCertificates(s).size()); // already certified
+            assertEquals(0, reopened.getCourseProgress(s, "no-such-course"));
+        } finally {
+            reopened.close();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package database;
+
+import models.Course;
+import models.Lesson;
+import models.Student;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** The enrollment index owns membership: the model lists derived from it must agree through every change. */
+class EnrollmentIndexTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void membershipStaysConsistentThroughEnrollUnenrollAndDelete() {
+        JsonDatabaseManager db = TestDatabases.open(dir, "journal");
+        String instructor = TestDatabases.register(db, "teacher", "Instructor").getUserId();
+        Course a = TestDatabases.approvedCourse(db, instructor, "A", 2), b = TestDatabases.approvedCourse(db, instructor, "B", 2);
+        Student s1 = (Student) TestDatabases.register(db, "one", "Student"), s2 = (Student) TestDatabases.register(db, "two", "Student");
+        String aId = a.getCourseId(), bId = b.getCourseId(), id1 = s1.getUserId(), id2 = s2.getUserId();
+
+        db.enrollStudentInCourse(id1, aId);
+        db.enrollStudentInCourse(id1, bId);
+        db.enrollStudentInCourse(id2, aId);
+        db.enrollStudentInCourse(id2, aId); // no duplicate
+        assertEquals(List.of(aId, bId), s1.getEnrolledCourses());
+        assertEquals(List.of(id1, id2), a.getStudents());
+        assertEquals(List.of(id1), b.getStudents());
+        assertTrue(db.isEnrolled(id2, aId));
+        assertEquals(List.of(), db.verifyCourseStatistics());
+
+        db.unenrollStudentFromCourse(id1, aId);
+        assertEquals(List.of(bId), s1.getEnrolledCourses());
+        assertEquals(List.of(id2), a.getStudents());
+        assertFalse(db.isEnrolled(id1, aId));
+        assertEquals(List.of(), db.verifyCourseStatistics());
+
+        Lesson first = a.getLessons().get(0), second = a.getLessons().get(1);
+        db.submitQuiz(id2, aId, first.getLessonId(), 90);
+        db.submitQuiz(id2, aId, second.getLessonId(), 80);
+        assertEquals(1, s2.getCertificates().size());
+        db.deleteLesson(aId, first.getLessonId());
+        assertFalse(s2.getQuizScores().containsKey(first.getLessonId()));
+        assertEquals(List.of(), db.verifyCourseStatistics());
+
+        db.deleteCourse(aId);
+        assertEquals(List.of(), s2.getEnrolledCourses());
+        assertEquals(List.of(), s2.getCertificates());
+        assertFalse(s2.getQuizScores().containsKey(second.getLessonId()));
+        assertFalse(db.isEnrolled(id2, aId));
+        assertEquals(List.of(), a.getStudents());
+        assertEquals(List.of(), db.verifyCourseStatistics());
+        db.close();
+
+        JsonDatabaseManager reopened = TestDatabases.open(dir, "journal");
+        try {
+            assertEquals(List.of(bId), reopened.getStudentById(id1).getEnrolledCourses());
+            assertEquals(List.of(), reopened.getStudentById(id2).getEnrolledCourses());
+            assertEquals(List.of(id1), reopened.getCourseById(bId).getStudents());
+            assertTrue(reopened.isEnrolled(id1, bId));
+            assertEquals(List.of(), reopened.verifyCourseStatistics());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void modelListsAreReadOnlyViews() {
+        JsonDatabaseManager db = TestDatabases.open(dir, "json");
+        try {
+            String instructor = TestDatabases.register(db, "teacher", "Instructor").getUserId();
+            Course c = TestDatabases.approvedCourse(db, instructor, "C", 1);
+            Student s = (Student) TestDatabases.register(db, "pupil", "Student");
+            db.enrollStudentInCourse(s.getUserId(), c.getCourseId());
+            assertThrows(UnsupportedOperationException.class, () -> s.getEnrolledCourses().add("elsewhere"));
+            assertThrows(UnsupportedOperationException.class, () -> c.getStudents().clear());
+            assertEquals(List.of(s.getUserId()), c.getStudents());
+            assertSame(c.getStudents(), c.getStudents()); // built once, not per read
+            db.unenrollStudentFromCourse(s.getUserId(), c.getCourseId());
+            assertEquals(List.of(), c.getStudents());
+            assertEquals(List.of(), s.getEnrolledCourses());
+        } finally {
+            db.close();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package database;
+
+import models.Course;
+import models.Question;
+import models.Quiz;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuizGraderTest {
+    private final QuizGrader grader = new QuizGrader();
+
+    private static Quiz quiz(int... correct) {
+        Question[] q = new Question[correct.length];
+        for (int i = 0; i < correct.length; i++) q[i] = new Question("Q" + i, List.of("a", "b", "c"), correct[i]);
+        return new Quiz("quiz", "lesson", List.of(q));
+    }
+
+    @Test
+    void gradesWithTheDialogsRounding() {
+        Quiz q = quiz(0, 1, 2);
+        assertEquals(100, grader.grade(q, new int[] {0, 1, 2}));
+        assertEquals(66, grader.grade(q, new int[] {0, 1, -1})); // truncated, not rounded
+        assertEquals(0, grader.grade(q, new int[] {2, 2, 0}));
+        assertEquals(0, grader.grade(quiz(), new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> grader.grade(q, new int[] {0}));
+    }
+
+    @Test
+    void anEditedQuizGetsAFreshKey() {
+        assertEquals(100, grader.grade(quiz(0, 0), new int[] {0, 0}));
+        assertEquals(0, grader.grade(quiz(1, 1), new int[] {0, 0}));
+    }
+
+    @Test
+    void batchesKeepInputOrderAndRejectBadSubmissions() {
+        Quiz q = quiz(1, 0);
+        List<QuizGrader.Submission> batch = List.of(
+                new QuizGrader.Submission("s1", "c", "known", new int[] {1, 0}),
+                new QuizGrader.Submission("s2", "c", "unknown", new int[] {1, 0}),
+                new QuizGrader.Submission("s3", "c", "known", new int[] {1}),
+                new QuizGrader.Submission("s4", "c", "known", new int[] {1, 1}));
+        List<QuizGrader.Result> results = grader.gradeAll(batch, s -> s.getLessonId().equals("known") ? q : null);
+        assertEquals(4, results.size());
+        for (int i = 0; i < 4; i++) assertEquals(batch.get(i), results.get(i).getSubmission());
+        assertEquals(100, results.get(0).getScore());
+        assertFalse(results.get(1).isGraded());
+        assertFalse(results.get(2).isGraded());
+        assertEquals(-1, results.get(2).getScore());
+        assertTrue(results.get(3).isGraded());
+        assertEquals(50, results.get(3).getScore());
+    }
+
+    @Test
+    void managerBatchesRecordOnlyKnownQuizzes(@TempDir Path dir) {
+        JsonDatabaseManager db = TestDatabases.open(dir, "json");
+        try {
+            String instructor = TestDatabases.register(db, "teacher", "Instructor").getUserId();
+            Course c = TestDatabases.approvedCourse(db, instructor, "C", 1);
+            String cId = c.getCourseId(), lId = c.getLessons().get(0).getLessonId();
+            String s = TestDatabases.register(db, "pupil", "Student").getUserId();
+            List<QuizGrader.Result> results = db.gradeSubmissions(List.of(
+                    new QuizGrader.Submission(s, cId, "", new int[] {0, 1}), // an empty lesson id is just unknown
+                    new QuizGrader.Submission(s, "no-such-course", lId, new int[] {0, 1}),
+                    new QuizGrader.Submission("no-such-student", cId, lId, new int[] {0, 1}),
+                    new QuizGrader.Submission(s, cId, lId, new int[] {0, 0})));
+            assertFalse(results.get(0).isGraded());
+            assertFalse(results.get(1).isGraded());
+            assertFalse(results.get(2).isGraded());
+            assertEquals(50, results.get(3).getScore());
+            assertEquals(50, db.getStudentById(s).getQuizScores().get(lId));
+        } finally {
+            db.close();
+        }
+    }
+
+    @Test
+    void readsCsvAndJsonLines(@TempDir Path dir) throws IOException {
+        Path csv = Files.writeString(dir.resolve("batch.csv"), "studentId,courseId,lessonId,answers\ns1, c1, l1, 0;2;1\n\ns2,c1,l1,\n");
+        List<QuizGrader.Submission> fromCsv = QuizGrader.read(csv);
+        assertEquals(2, fromCsv.size());
+        assertEquals("s1", fromCsv.get(0).getStudentId());
+        assertArrayEquals(new int[] {0, 2, 1}, fromCsv.get(0).getAnswers());
+        assertArrayEquals(new int[0], fromCsv.get(1).getAnswers());
+
+        Path jsonl = Files.writeString(dir.resolve("batch.jsonl"), "{\"studentId\":\"s1\",\"courseId\":\"c1\",\"lessonId\":\"l1\",\"answers\":[1,0]}\n");
+        QuizGrader.Submission s = QuizGrader.read(jsonl).get(0);
+        assertEquals("l1", s.getLessonId());
+        assertArrayEquals(new int[] {1, 0}, s.getAnswers());
+
+        Path bad = Files.writeString(dir.resolve("bad.jsonl"), "{\"studentId\":\"s1\"}\n");
+        IOException e = assertThrows(IOException.class, () -> QuizGrader.read(bad));
+        assertTrue(e.getMessage().contains("line 1"));
+    }
+}
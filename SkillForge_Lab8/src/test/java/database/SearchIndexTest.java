@@ -0,0 +1,76 @@
+package database;
+
+import models.Course;
+import models.CourseStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Searches go through the manager, so the index is checked against the edits that feed it. */
+class SearchIndexTest {
+    @TempDir
+    Path dir;
+
+    private static List<String> titles(List<Course> found) {
+        return found.stream().map(Course::getTitle).toList();
+    }
+
+    @Test
+    void matchesPrefixesExactWordsAndRanksTitlesFirst() {
+        JsonDatabaseManager db = TestDatabases.open(dir, "json");
+        try {
+            String instructor = TestDatabases.register(db, "teacher", "Instructor").getUserId();
+            Course java = TestDatabases.approvedCourse(db, instructor, "Java Basics", 1);
+            TestDatabases.approvedCourse(db, instructor, "Javascript", 1);
+            Course pending = TestDatabases.approvedCourse(db, instructor, "Python", 1);
+            db.updateCourse(pending.getCourseId(), "Python", "Scripting for java developers");
+            db.rejectCourse(pending.getCourseId());
+
+            assertEquals(List.of("Java Basics", "Javascript"), titles(db.searchCourses("jav", CourseStatus.APPROVED, 10)));
+            assertEquals(List.of("Java Basics"), titles(db.searchCourses("java ", CourseStatus.APPROVED, 10))); // trailing space: whole word
+            assertEquals(List.of("Java Basics", "Python"), titles(db.searchCourses("java ", null, 10)));
+            assertEquals(List.of("Java Basics"), titles(db.searchCourses("BASICS java", CourseStatus.APPROVED, 10)));
+            assertEquals(List.of("Java Basics"), titles(db.searchCourses("jav", CourseStatus.APPROVED, 1)));
+            assertEquals(List.of(), db.searchCourses("", null, 10));
+            assertEquals(List.of(), db.searchCourses("cobol", null, 10));
+            assertEquals(List.of(), db.searchCourses("java", CourseStatus.PENDING, 10));
+            assertEquals(java.getCourseId(), db.searchCourses("basics", null, 10).get(0).getCourseId());
+            String skip = java.getCourseId(); // filtered before the limit, so the page is still full
+            assertEquals(List.of("Javascript"), titles(db.searchCourses("jav", CourseStatus.APPROVED, c -> !c.getCourseId().equals(skip), 1)));
+        } finally {
+            db.close();
+        }
+    }
+
+    @Test
+    void followsLessonAndCourseEdits() {
+        JsonDatabaseManager db = TestDatabases.open(dir, "json");
+        try {
+            String instructor = TestDatabases.register(db, "teacher", "Instructor").getUserId();
+            Course c = TestDatabases.approvedCourse(db, instructor, "Databases", 2);
+            String lesson = c.getLessons().get(0).getLessonId();
+            assertEquals(List.of("Databases"), titles(db.searchCourses("content", null, 10)));
+
+            db.updateLesson(c.getCourseId(), lesson, "Indexes", "B-trees and hashing", TestDatabases.quiz());
+            assertEquals(List.of("Databases"), titles(db.searchCourses("hashing", null, 10)));
+            assertEquals(List.of("Databases"), titles(db.searchCourses("indexes", null, 10)));
+
+            db.deleteLesson(c.getCourseId(), lesson);
+            assertEquals(List.of(), db.searchCourses("hashing", null, 10));
+
+            assertEquals(List.of("Databases"), titles(db.searchCourses("about", null, 10)));
+            db.updateCourse(c.getCourseId(), "Storage Engines", "Pages and logs");
+            assertEquals(List.of(), db.searchCourses("about", null, 10));
+            assertEquals(List.of("Storage Engines"), titles(db.searchCourses("engine", null, 10)));
+
+            db.deleteCourse(c.getCourseId());
+            assertEquals(List.of(), db.searchCourses("engines", null, 10));
+        } finally {
+            db.close();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package database;
+
+import models.Course;
+import models.Lesson;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Exports between the JSON files and the binary snapshot carry everything, lesson bodies included. */
+class SnapshotConverterTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void importThenExportReproducesTheFiles() throws Exception {
+        JsonDatabaseManager db = TestDatabases.open(dir, "json");
+        String instructor = TestDatabases.register(db, "teacher", "Instructor").getUserId();
+        Course c = TestDatabases.approvedCourse(db, instructor, "Algebra", 2);
+        String student = TestDatabases.register(db, "pupil", "Student").getUserId();
+        db.enrollStudentInCourse(student, c.getCourseId());
+        Lesson first = c.getLessons().get(0);
+        db.submitQuiz(student, c.getCourseId(), first.getLessonId(), 80);
+        db.updateLesson(c.getCourseId(), first.getLessonId(), first.getTitle(), "Edited content", null); // only rewrites the lesson file
+        db.close();
+
+        convert("to-binary");
+        convert("to-json");
+        byte[] users = Files.readAllBytes(dir.resolve("users.json")), courses = Files.readAllBytes(dir.resolve("courses.json"));
+        byte[] snapshot = Files.readAllBytes(dir.resolve(JsonDatabaseManager.SNAPSHOT_FILE_NAME));
+        assertTrue(new String(courses, StandardCharsets.UTF_8).contains("Edited content"), "lesson body missing from courses.json");
+
+        convert("to-binary");
+        assertArrayEquals(snapshot, Files.readAllBytes(dir.resolve(JsonDatabaseManager.SNAPSHOT_FILE_NAME)));
+        Files.delete(dir.resolve("users.json"));
+        Files.delete(dir.resolve("courses.json"));
+        convert("to-json");
+        assertArrayEquals(users, Files.readAllBytes(dir.resolve("users.json")));
+        assertArrayEquals(courses, Files.readAllBytes(dir.resolve("courses.json")));
+
+        // Opening the export moves the bodies back out without rewriting the course file
+        JsonDatabaseManager reopened = TestDatabases.open(dir, "json");
+        assertEquals("Edited content", reopened.getLessonContent(first.getLessonId()));
+        reopened.close();
+        assertArrayEquals(courses, Files.readAllBytes(dir.resolve("courses.json")));
+    }
+
+    @Test
+    void binarySnapshotStandsOnItsOwn(@TempDir Path copy) throws Exception {
+        JsonDatabaseManager db = TestDatabases.open(dir, "json");
+        String instructor = TestDatabases.register(db, "teacher", "Instructor").getUserId();
+        Course c = TestDatabases.approvedCourse(db, instructor, "Geometry", 2);
+        db.close();
+
+        convert("to-binary");
+        Files.copy(dir.resolve(JsonDatabaseManager.SNAPSHOT_FILE_NAME), copy.resolve(JsonDatabaseManager.SNAPSHOT_FILE_NAME));
+        JsonDatabaseManager moved = TestDatabases.open(copy, "binary");
+        try {
+            for (int l = 0; l < 2; l++) assertEquals("Content " + l, moved.getLessonContent(c.getLessons().get(l).getLessonId()));
+        } finally {
+            moved.close();
+        }
+    }
+
+    private void convert(String direction) throws Exception {
+        SnapshotConverter.main(new String[] {direction, dir.toString()});
+    }
+}
@@ -0,0 +1,111 @@
+package database;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import models.Course;
+import models.Lesson;
+import models.QuizScores;
+import models.Student;
+import models.User;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/** Everything a backend is given comes back identical after reopening, including after deletes. */
+class StorageRoundTripTest {
+    private static final Gson GSON = ModelTypeAdapters.register(new GsonBuilder()).create();
+    private static final List<String> EMAILS = List.of("admin@skillforge.com", "teacher@test.local", "one@test.local", "two@test.local");
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"json", "journal", "sharded", "binary"})
+    void reopenedDatabaseMatchesWhatWasWritten(String storage) {
+        JsonDatabaseManager db = TestDatabases.open(dir, storage);
+        String instructor = TestDatabases.register(db, "teacher", "Instructor").getUserId();
+        Course a = TestDatabases.approvedCourse(db, instructor, "A", 2), b = TestDatabases.approvedCourse(db, instructor, "B", 1);
+        db.createCourse("Pending", "Not yet approved", instructor);
+        db.createCourse("Rejected", "No", instructor);
+        db.rejectCourse(db.queryCourses(new CourseQuery().filter(c -> c.getTitle().equals("Rejected"))).get(0).getCourseId());
+        String one = TestDatabases.register(db, "one", "Student").getUserId(), two = TestDatabases.register(db, "two", "Student").getUserId();
+        db.enrollStudentInCourse(one, a.getCourseId());
+        db.enrollStudentInCourse(one, b.getCourseId());
+        db.enrollStudentInCourse(two, a.getCourseId());
+        for (Lesson l : a.getLessons()) db.submitQuiz(one, a.getCourseId(), l.getLessonId(), 75); // earns the certificate
+        db.submitQuiz(two, a.getCourseId(), a.getLessons().get(0).getLessonId(), 30);
+        db.updateCourse(b.getCourseId(), "B2", "Renamed");
+        String written = dump(db);
+        db.close();
+
+        JsonDatabaseManager reopened = TestDatabases.open(dir, storage);
+        assertEquals(written, dump(reopened));
+        assertInstanceOf(QuizScores.class, reopened.getStudentById(one).getQuizScores());
+        reopened.unenrollStudentFromCourse(two, a.getCourseId());
+        reopened.deleteLesson(a.getCourseId(), a.getLessons().get(1).getLessonId());
+        reopened.deleteCourse(b.getCourseId());
+        written = dump(reopened);
+        reopened.close();
+
+        JsonDatabaseManager again = TestDatabases.open(dir, storage);
+        try {
+            assertEquals(written, dump(again));
+            assertEquals(List.of(), again.verifyCourseStatistics());
+        } finally {
+            again.close();
+        }
+    }
+
+    /** Every record the test knows of, serialized with the storage adapters and then {@link #normalized}. */
+    private static String dump(JsonDatabaseManager db) {
+        List<String> out = new ArrayList<>();
+        for (String email : EMAILS) {
+            User u = db.getUserByEmail(email);
+            out.add(normalized(GSON.toJsonTree(u, User.class)).toString());
+            if (u instanceof Student) out.add(db.getCertificates(u.getUserId()).size() + " certificates");
+        }
+        List<String> courses = new ArrayList<>();
+        for (Course c : db.queryCourses(new CourseQuery())) courses.add(normalized(GSON.toJsonTree(c, Course.class)).toString());
+        Collections.sort(courses);
+        out.addAll(courses);
+        List<String> students = new ArrayList<>();
+        for (Student s : db.getAllStudents()) students.add(s.getUsername());
+        Collections.sort(students);
+        out.add(students.toString());
+        return String.join("\n", out);
+    }
+
+    /**
+     * Sorts object keys and arrays of plain values (id lists), which no backend promises to keep in
+     * order: sharded storage loads courses shard by shard, and score maps iterate in hash order.
+     */
+    private static JsonElement normalized(JsonElement e) {
+        if (e.isJsonObject()) {
+            JsonObject sorted = new JsonObject();
+            new TreeMap<>(e.getAsJsonObject().asMap()).forEach((k, v) -> sorted.add(k, normalized(v)));
+            return sorted;
+        }
+        if (e.isJsonArray()) {
+            List<JsonElement> items = new ArrayList<>();
+            for (JsonElement item : e.getAsJsonArray()) items.add(normalized(item));
+            if (items.stream().allMatch(JsonElement::isJsonPrimitive)) items.sort(Comparator.comparing(JsonElement::getAsString));
+            JsonArray array = new JsonArray();
+            items.forEach(array::add);
+            return array;
+        }
+        return e;
+    }
+}
@@ -0,0 +1,48 @@
+package database;
+
+import models.Course;
+import models.Question;
+import models.Quiz;
+import models.User;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+/** Opens managers on throwaway data directories and seeds them for tests. */
+final class TestDatabases {
+    private TestDatabases() {}
+
+    /** A fresh manager on {@code dir} with the given storage backend ("json", "journal", ...). */
+    static JsonDatabaseManager open(Path dir, String storage) {
+        System.setProperty("skillforge.dataDir", dir.toString());
+        System.setProperty("skillforge.storage", storage);
+        try {
+            return new JsonDatabaseManager();
+        } finally {
+            System.clearProperty("skillforge.dataDir");
+            System.clearProperty("skillforge.storage");
+        }
+    }
+
+    static User register(JsonDatabaseManager db, String name, String role) {
+        String email = name + "@test.local";
+        if (!db.registerUser(name, email, "pw", role)) throw new IllegalStateException("Could not register " + email);
+        return db.getUserByEmail(email);
+    }
+
+    /** Creates and approves a course with {@code lessons} lessons, each with a two-question quiz whose answers are 0 and 1. */
+    static Course approvedCourse(JsonDatabaseManager db, String instructorId, String title, int lessons) {
+        db.createCourse(title, "About " + title, instructorId);
+        Course c = db.getCoursesByInstructor(instructorId).stream().filter(x -> x.getTitle().equals(title)).findFirst().orElseThrow();
+        for (int l = 0; l < lessons; l++) db.addLesson(c.getCourseId(), title + " lesson " + l, "Content " + l, quiz());
+        db.approveCourse(c.getCourseId());
+        return c;
+    }
+
+    static Quiz quiz() {
+        return new Quiz(UUID.randomUUID().toString(), null, List.of(
+                new Question("First?", List.of("yes", "no"), 0),
+                new Question("Second?", List.of("yes", "no"), 1)));
+    }
+}
@@ -0,0 +1,32 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class IdDictionaryTest {
+    @Test
+    void equalIdsShareOneInstance() {
+        String id = UUID.randomUUID().toString();
+        String first = IdDictionary.canonical(new String(id));
+        assertSame(first, IdDictionary.canonical(new String(id)));
+        Lesson l = new Lesson(new String(id), "Title", null, null, null);
+        assertSame(first, l.getLessonId());
+        assertEquals(id, first);
+    }
+
+    @Test
+    void unreferencedIdsAreDropped() throws InterruptedException {
+        WeakReference<String> held = new WeakReference<>(IdDictionary.canonical(UUID.randomUUID().toString()));
+        for (int i = 0; i < 50 && held.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(held.get(), "the dictionary kept a deleted id alive");
+    }
+}
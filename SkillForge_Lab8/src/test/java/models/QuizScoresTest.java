@@ -0,0 +1,74 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** The open-addressing table must behave exactly like the {@code HashMap} it replaced. */
+class QuizScoresTest {
+    @Test
+    void agreesWithAHashMapThroughGrowthAndRemoval() {
+        QuizScores scores = new QuizScores();
+        Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            String id = "lesson-" + i;
+            assertNull(scores.put(id, i % 101));
+            expected.put(id, i % 101);
+        }
+        assertEquals(50, scores.put("lesson-50", 99)); // returns the old score
+        expected.put("lesson-50", 99);
+        for (int i = 0; i < 500; i += 3) {
+            assertEquals(expected.remove("lesson-" + i), scores.remove("lesson-" + i));
+        }
+        assertNull(scores.remove("lesson-0"));
+        assertNull(scores.remove(42));
+        assertEquals(expected, scores);
+        assertEquals(expected.size(), scores.size());
+        for (Map.Entry<String, Integer> e : expected.entrySet()) {
+            assertEquals(e.getValue(), scores.get(e.getKey()));
+            assertEquals(e.getValue().intValue(), scores.score(e.getKey()));
+        }
+        assertEquals(expected, new QuizScores(expected));
+    }
+
+    @Test
+    void missingScoresAndBadInput() {
+        QuizScores scores = new QuizScores(Map.of("a", 0));
+        assertEquals(0, scores.score("a"));
+        assertTrue(scores.containsKey("a"));
+        assertEquals(QuizScores.NONE, scores.score("b"));
+        assertEquals(QuizScores.NONE, scores.score(null));
+        assertNull(scores.get("b"));
+        assertFalse(scores.containsKey("b"));
+        assertThrows(IllegalArgumentException.class, () -> scores.put("c", 40000));
+        assertThrows(NullPointerException.class, () -> scores.put(null, 1));
+        assertThrows(NullPointerException.class, () -> scores.put("c", null));
+        scores.clear();
+        assertTrue(scores.isEmpty());
+        assertEquals(QuizScores.NONE, scores.score("a"));
+    }
+
+    @Test
+    void iterationWalksASnapshot() {
+        QuizScores scores = new QuizScores(Map.of("a", 1, "b", 2));
+        Iterator<Map.Entry<String, Integer>> it = scores.entrySet().iterator();
+        scores.put("c", 3);
+        scores.remove("a");
+        int seen = 0;
+        while (it.hasNext()) {
+            it.next();
+            seen++;
+        }
+        assertEquals(2, seen);
+        assertThrows(UnsupportedOperationException.class, () -> scores.entrySet().iterator().remove());
+        assertEquals(Map.of("b", 2, "c", 3), scores);
+    }
+}